@@ -0,0 +1,127 @@
+package com.cocktails.machine;
+
+import com.google.gson.stream.JsonWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Timings of the startup phases, measured from JVM start.
+ * Phases may run on any thread and overlap; the trace is logged and exported as JSON once the first frame
+ * has been rendered, so time to first interactive frame can be compared across releases.
+ */
+@Slf4j
+public class BootTrace {
+
+    private final long originNanos;
+    private final Instant jvmStart;
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+
+    public BootTrace() {
+        // Anchor the monotonic clock to the JVM start, so phases include launcher and class loading time
+        long nowNanos = System.nanoTime();
+        Instant now = Instant.now();
+        this.jvmStart = ProcessHandle.current().info().startInstant().orElse(now);
+        this.originNanos = nowNanos - Duration.between(jvmStart, now).toNanos();
+    }
+
+    /**
+     * Starts a phase; close the returned handle when the phase ends.
+     */
+    public Phase phase(String name) {
+        return new Phase(name, System.nanoTime());
+    }
+
+    /**
+     * Records a point in time, e.g. the first rendered frame.
+     */
+    public void mark(String name) {
+        long now = System.nanoTime();
+        spans.add(new Span(name, Thread.currentThread().getName(), now - originNanos, now - originNanos));
+    }
+
+    /**
+     * Milliseconds from JVM start to the end of the given phase or mark, or -1 if it was not recorded.
+     */
+    public double millisTo(String name) {
+        return spans.stream()
+                .filter(span -> span.name().equals(name))
+                .mapToDouble(span -> span.endNanos() / 1_000_000.0)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    public List<Span> getSpans() {
+        var sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong(Span::startNanos));
+        return sorted;
+    }
+
+    public void log() {
+        var sb = new StringBuilder("Boot trace (ms from JVM start):");
+        for (Span span : getSpans()) {
+            sb.append("%n  %-24s %8.1f -> %8.1f  (%7.1f ms) [%s]".formatted(span.name(),
+                    span.startNanos() / 1_000_000.0, span.endNanos() / 1_000_000.0,
+                    span.durationMillis(), span.thread()));
+        }
+        log.info(sb.toString());
+    }
+
+    /**
+     * Writes the trace as JSON, overwriting a previous export.
+     */
+    public void export(Path file) throws IOException {
+        Path parentDir = file.getParent();
+        if (parentDir != null && !Files.exists(parentDir)) {
+            Files.createDirectories(parentDir);
+        }
+        try (var writer = new JsonWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("jvmStart").value(jvmStart.toString());
+            writer.name("phases").beginArray();
+            for (Span span : getSpans()) {
+                writer.beginObject();
+                writer.name("name").value(span.name());
+                writer.name("thread").value(span.thread());
+                writer.name("startMillis").value(span.startNanos() / 1_000_000.0);
+                writer.name("endMillis").value(span.endNanos() / 1_000_000.0);
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+    }
+
+    public record Span(String name, String thread, long startNanos, long endNanos) {
+
+        public double durationMillis() {
+            return (endNanos - startNanos) / 1_000_000.0;
+        }
+    }
+
+    public final class Phase implements AutoCloseable {
+        private final String name;
+        private final long start;
+
+        private Phase(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            spans.add(new Span(name, Thread.currentThread().getName(), start - originNanos, System.nanoTime() - originNanos));
+        }
+    }
+}
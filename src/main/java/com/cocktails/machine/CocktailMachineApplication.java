@@ -1,8 +1,16 @@
 package com.cocktails.machine;
 
+import com.cocktails.machine.model.Cocktail;
 import com.cocktails.machine.repository.CocktailRepository;
+import com.cocktails.machine.service.impl.DispenseServiceImpl;
+import com.cocktails.machine.service.impl.InventoryServiceImpl;
 import com.cocktails.machine.ui.NavigationManager;
+import com.cocktails.machine.ui.component.CocktailCardStrip;
+import com.cocktails.machine.ui.controller.HomeScreenController.CocktailFilter;
+import com.cocktails.machine.ui.service.FrameStatsMonitor;
 import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.util.ThumbnailCache;
+import com.cocktails.machine.util.ViewFactory;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Parent;
@@ -13,6 +21,14 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Slf4j
 public class CocktailMachineApplication extends Application {
 
@@ -23,18 +39,83 @@ public class CocktailMachineApplication extends Application {
     public static final int DEFAULT_SCREEN_HEIGHT = 720;
     public static final int STATUS_BAR_HEIGHT = 48;
     public static final int MAIN_SCREEN_HEIGHT = DEFAULT_SCREEN_HEIGHT - STATUS_BAR_HEIGHT;
-
+    // Cards that fit on screen plus the strip's buffer on both sides
+    public static final int PREWARMED_CARDS = (int) Math.ceil(DEFAULT_SCREEN_WIDTH / CocktailCardStrip.CARD_WIDTH) + 2 * CocktailCardStrip.BUFFER_CARDS;
+    public static final String BOOT_TRACE_FILE = "boot-trace.json";
+
+    private final BootTrace bootTrace = new BootTrace();
+    private CompletableFuture<Void> catalogReady;
+    private CompletableFuture<Void> viewsReady;
+
+    /**
+     * Runs on the launcher thread while the toolkit starts. Everything that does not need the FX thread is started
+     * here in parallel, so start() only assembles the scene.
+     */
     @Override
     public void init() {
         Thread.setDefaultUncaughtExceptionHandler((t, e) -> log.error("Uncaught exception: ", e));
+        bootTrace.mark("init");
+
+        var counter = new AtomicInteger();
+        ExecutorService bootExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            var thread = new Thread(runnable, "boot-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Load cocktails, then render missing card/detail thumbnails in the background for this and later boots,
+        // connect the saved bottles and plan every cocktail's pours
+        catalogReady = CompletableFuture.runAsync(() -> {
+            try (var phase = bootTrace.phase("catalog-load")) {
+                CocktailRepository.getInstance().load();
+            }
+            var cocktails = CocktailRepository.getInstance().getCocktails(CocktailFilter.ALL);
+            try (var phase = bootTrace.phase("thumbnail-schedule")) {
+                ThumbnailCache.getInstance().warmUp(cocktails.stream()
+                        .map(Cocktail::getImage)
+                        .toList());
+            }
+            try (var phase = bootTrace.phase("inventory")) {
+                InventoryServiceImpl.getInstance().load(cocktails, DispenseServiceImpl.PUMP_COUNT);
+            }
+            try (var phase = bootTrace.phase("pour-plans")) {
+                DispenseServiceImpl.getInstance().prewarmPlans(cocktails);
+            }
+        }, bootExecutor);
+
+        // Pre-build the views used on every navigation, so showing them does not parse FXML.
+        // None of them is attached to a scene yet, so building them off the FX thread is safe.
+        CompletableFuture<Void> cardsReady = CompletableFuture.runAsync(() -> {
+            try (var phase = bootTrace.phase("prewarm-views")) {
+                ViewFactory.getInstance().prewarm(STATUS_BAR_FXML, 1);
+                ViewFactory.getInstance().prewarm(CocktailCardStrip.COCKTAIL_CARD_FXML, PREWARMED_CARDS);
+                ViewFactory.getInstance().prewarm(NavigationManager.COCKTAIL_DETAIL_SCREEN_FXML, 1);
+            }
+        }, bootExecutor);
+        // The home screen reads the catalog while it is built
+        CompletableFuture<Void> homeReady = catalogReady.thenRunAsync(() -> {
+            try (var phase = bootTrace.phase("prewarm-home")) {
+                ViewFactory.getInstance().prewarm(NavigationManager.HOME_SCREEN_FXML, 1);
+            }
+        }, bootExecutor);
+        viewsReady = CompletableFuture.allOf(cardsReady, homeReady);
+        viewsReady.whenComplete((result, e) -> bootExecutor.shutdown());
     }
 
     @Override
     public void start(Stage stage) {
         try {
-            // Load cocktails from JSON at startup
-            CocktailRepository.getInstance().load();
-
+            try (var phase = bootTrace.phase("await-catalog")) {
+                catalogReady.join();
+            }
+            try (var phase = bootTrace.phase("await-views")) {
+                viewsReady.join();
+            } catch (CompletionException e) {
+                // Not fatal, missing views are built on first use
+                log.warn("View prewarm failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+
+            var assembly = bootTrace.phase("scene-assembly");
             // Create root container with fixed status bar
             VBox root = new VBox();
             root.getStyleClass().add("root");
@@ -71,20 +152,58 @@ public class CocktailMachineApplication extends Application {
             stage.setResizable(false);
 
             stage.setScene(scene);
-            stage.show();
-
-            // Register shutdown hook to save data on exit
-            stage.setOnCloseRequest(e -> {
-                CocktailRepository.getInstance().save();
-                Platform.exit();
-            });
+            assembly.close();
+            traceFirstFrame(scene);
+            try (var phase = bootTrace.phase("stage-show")) {
+                stage.show();
+            }
+            FrameStatsMonitor.getInstance().start(scene);
+
+            // Pending changes are flushed by stop(), which Platform.exit() triggers
+            stage.setOnCloseRequest(e -> Platform.exit());
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize application", e);
         }
     }
 
+    /**
+     * Marks the first pulse after the stage is shown, then logs and exports the boot trace.
+     */
+    private void traceFirstFrame(Scene scene) {
+        var listener = new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                bootTrace.mark("first-frame");
+                log.info("First interactive frame {} ms after JVM start", "%.1f".formatted(bootTrace.millisTo("first-frame")));
+                bootTrace.log();
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        bootTrace.export(getBootTracePath());
+                    } catch (Exception e) {
+                        log.warn("Failed to export boot trace: {}", e.getMessage());
+                    }
+                });
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+
+    private static Path getBootTracePath() {
+        String userHome = System.getProperty("user.home");
+        if (userHome != null && !userHome.isEmpty()) {
+            return Paths.get(userHome, ".cocktail-machine", BOOT_TRACE_FILE);
+        }
+        return Paths.get(BOOT_TRACE_FILE);
+    }
+
     @Override
     public void stop() {
-        CocktailRepository.getInstance().save();
+        FrameStatsMonitor.getInstance().stop();
+        DispenseServiceImpl.getInstance().shutdown();
+        log.info("Dispense: {}", DispenseServiceImpl.getInstance().getMetrics());
+        InventoryServiceImpl.getInstance().shutdown();
+        CocktailRepository.getInstance().shutdown();
+        log.info("View factory: {}", ViewFactory.getInstance().getStats());
     }
 }
@@ -1,9 +1,54 @@
 package com.cocktails.machine;
 
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.repository.CocktailRepository;
+import com.cocktails.machine.service.impl.DispenseServiceImpl;
+import com.cocktails.machine.service.impl.DispenseSimulation;
+import com.cocktails.machine.service.impl.InventoryServiceImpl;
+import com.cocktails.machine.ui.controller.HomeScreenController.CocktailFilter;
 import javafx.application.Application;
 
+import java.util.List;
+
 public class Launcher {
+    /**
+     * Number of orders to simulate instead of starting the UI, e.g. {@code -Dcocktail-machine.simulate=2000}.
+     */
+    public static final String SIMULATE_PROPERTY = "cocktail-machine.simulate";
+    public static final String SIMULATE_RATE_PROPERTY = "cocktail-machine.simulate.ordersPerHour";
+    public static final String SIMULATE_SEED_PROPERTY = "cocktail-machine.simulate.seed";
+
     public static void main(String[] args) {
+        if (System.getProperty(SIMULATE_PROPERTY) != null) {
+            simulate();
+            return;
+        }
         Application.launch(CocktailMachineApplication.class, args);
     }
+
+    /**
+     * Replays orders for the saved catalog and bottles on a virtual clock and prints the report.
+     * The menu is every cocktail the bottles can make. Catalog and inventory are only read: the repository does
+     * not rebuild its snapshot and the inventory is never shut down, so no file is written and no writer thread
+     * keeps the JVM alive.
+     */
+    private static void simulate() {
+        int orders = Integer.parseInt(System.getProperty(SIMULATE_PROPERTY));
+        double ordersPerHour = Double.parseDouble(System.getProperty(SIMULATE_RATE_PROPERTY, "120"));
+        long seed = Long.getLong(SIMULATE_SEED_PROPERTY, 1L);
+
+        var repository = CocktailRepository.getInstance();
+        repository.loadReadOnly();
+        List<Cocktail> cocktails = repository.getCocktails(CocktailFilter.ALL);
+        var inventory = InventoryServiceImpl.getInstance();
+        inventory.load(cocktails, DispenseServiceImpl.PUMP_COUNT);
+        List<Cocktail> menu = cocktails.stream()
+                .filter(inventory::isReady)
+                .toList();
+
+        var report = new DispenseSimulation(menu, inventory.getBottles()).run(orders, ordersPerHour, seed);
+        System.out.printf("Simulated %d orders at %.0f/hour from a menu of %d cocktails (seed %d)%n",
+                orders, ordersPerHour, menu.size(), seed);
+        System.out.println(report);
+    }
 }
@@ -0,0 +1,13 @@
+package com.cocktails.machine.model;
+
+/**
+ * The bottle connected to a pump.
+ *
+ * @param ingredientId interned ingredient id, see {@link Recipe}; -1 if the pump has no bottle
+ */
+public record Bottle(int pump, int ingredientId, String ingredient, double levelMl, double capacityMl) {
+
+    public boolean isEmpty() {
+        return ingredientId < 0 || levelMl <= 0;
+    }
+}
@@ -8,7 +8,11 @@ public class Cocktail {
     private String icon;
     private String image;
     private List<String> ingredients;
-    private boolean isFavorite = false;
+    // Favorite state as saved; the current state is CocktailRepository#isFavorite, as instances are shared
+    // by every catalog version
+    private volatile boolean isFavorite = false;
+    // Compiled from the ingredient lines when the catalog is loaded, not serialized
+    private transient Recipe recipe = Recipe.EMPTY;
 
     public Cocktail() {
     }
@@ -59,6 +63,14 @@ public class Cocktail {
         this.ingredients = ingredients;
     }
 
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public void setRecipe(Recipe recipe) {
+        this.recipe = recipe == null ? Recipe.EMPTY : recipe;
+    }
+
     public boolean isFavorite() {
         return isFavorite;
     }
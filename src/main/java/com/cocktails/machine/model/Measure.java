@@ -0,0 +1,14 @@
+package com.cocktails.machine.model;
+
+/**
+ * One parsed recipe line.
+ *
+ * @param ingredientId interned id of the normalized ingredient name
+ * @param amount       quantity in {@code unit}, 0 if the line has none
+ */
+public record Measure(int ingredientId, double amount, Unit unit) {
+
+    public double toMl() {
+        return unit.toMl(amount);
+    }
+}
@@ -0,0 +1,67 @@
+package com.cocktails.machine.model;
+
+/**
+ * Compiled form of a cocktail's ingredient lines, stored in parallel primitive arrays.
+ * Built once when the catalog is loaded; the volume of every line is converted to millilitres up front, so
+ * planning and inventory checks read ids and volumes without parsing or string lookups.
+ */
+public final class Recipe {
+    public static final Recipe EMPTY = new Recipe(new int[0], new double[0], new byte[0]);
+
+    private final int[] ingredientIds;
+    private final double[] amounts;
+    private final byte[] units;
+    private final double[] volumesMl;
+    private final double totalMl;
+
+    public Recipe(int[] ingredientIds, double[] amounts, byte[] units) {
+        if (ingredientIds.length != amounts.length || amounts.length != units.length) {
+            throw new IllegalArgumentException("Recipe arrays differ in length");
+        }
+        this.ingredientIds = ingredientIds;
+        this.amounts = amounts;
+        this.units = units;
+        this.volumesMl = new double[amounts.length];
+        double total = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            volumesMl[i] = Unit.ofOrdinal(units[i]).toMl(amounts[i]);
+            total += volumesMl[i];
+        }
+        this.totalMl = total;
+    }
+
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    public boolean isEmpty() {
+        return ingredientIds.length == 0;
+    }
+
+    public int ingredientId(int line) {
+        return ingredientIds[line];
+    }
+
+    public double amount(int line) {
+        return amounts[line];
+    }
+
+    public Unit unit(int line) {
+        return Unit.ofOrdinal(units[line]);
+    }
+
+    /**
+     * Pumpable volume of the line in millilitres, 0 for garnishes, counts and lines without a quantity.
+     */
+    public double volumeMl(int line) {
+        return volumesMl[line];
+    }
+
+    public double totalMl() {
+        return totalMl;
+    }
+
+    public Measure measure(int line) {
+        return new Measure(ingredientIds[line], amounts[line], unit(line));
+    }
+}
@@ -0,0 +1,84 @@
+package com.cocktails.machine.model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Units found in recipe lines, with their conversion factor to millilitres.
+ * Units that cannot be pumped (garnishes, counts) have a factor of 0.
+ */
+public enum Unit {
+    ML(1, "ml", "milliliter", "milliliters", "millilitre", "millilitres"),
+    CL(10, "cl", "centiliter", "centiliters", "centilitre", "centilitres"),
+    DL(100, "dl"),
+    L(1000, "l", "liter", "liters", "litre", "litres"),
+    OZ(29.5735, "oz", "ounce", "ounces", "fl oz", "fl. oz"),
+    TSP(4.92892, "tsp", "teaspoon", "teaspoons"),
+    TBSP(14.7868, "tbsp", "tablespoon", "tablespoons"),
+    DASH(0.92, "dash", "dashes"),
+    DROP(0.05, "drop", "drops"),
+    SPLASH(5.9, "splash", "splashes"),
+    SHOT(44.36, "shot", "shots", "jigger", "jiggers"),
+    CUP(236.59, "cup", "cups"),
+    // A part is relative; it is poured as one standard 30 ml measure
+    PART(30, "part", "parts"),
+    PIECE(0, "piece", "pieces", "slice", "slices", "wedge", "wedges", "pinch", "pinches", "sprig", "sprigs",
+            "leaf", "leaves", "twist", "twists", "cube", "cubes"),
+    // A count without a unit, e.g. "2 eggs"
+    COUNT(0),
+    // No quantity at all, e.g. "soda water" to top up
+    UNSPECIFIED(0);
+
+    private static final Unit[] VALUES = values();
+    private static final Map<String, Unit> BY_SYMBOL = new HashMap<>();
+
+    static {
+        for (Unit unit : VALUES) {
+            for (String symbol : unit.symbols) {
+                BY_SYMBOL.put(symbol, unit);
+            }
+        }
+    }
+
+    private final double mlFactor;
+    private final String[] symbols;
+
+    Unit(double mlFactor, String... symbols) {
+        this.mlFactor = mlFactor;
+        this.symbols = symbols;
+    }
+
+    public double mlFactor() {
+        return mlFactor;
+    }
+
+    public boolean isLiquid() {
+        return mlFactor > 0;
+    }
+
+    public double toMl(double amount) {
+        return amount * mlFactor;
+    }
+
+    /**
+     * Looks up a unit by any of its spellings, case-insensitive and ignoring a trailing dot; null if unknown.
+     */
+    public static Unit fromSymbol(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        String key = symbol.toLowerCase(Locale.ROOT);
+        if (key.endsWith(".")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return BY_SYMBOL.get(key);
+    }
+
+    /**
+     * Ordinal lookup without the array copy of {@link #values()}.
+     */
+    public static Unit ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,212 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compact binary snapshot of the catalog, written next to {@code cocktails.json} and preferred on startup
+ * because it is read without Gson reflection. JSON remains the interchange and fallback format.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int     magic "CKTB"
+ * short   format version
+ * long    size of the JSON file this snapshot was written from
+ * long    last-modified millis of that JSON file
+ * int     string count, then per string: int byte length + UTF-8 bytes
+ * int     record count, then per record: int byte length + record body
+ * record  int name, int description, int icon, int image (string table indexes, -1 for null),
+ *         byte flags, short ingredient count, int ingredient indexes...
+ * </pre>
+ * The length prefix lets the reader skip a record it cannot decode without losing the rest.
+ */
+@Slf4j
+class BinaryCatalogCodec {
+    private static final int MAGIC = 0x434B5442;
+    private static final short VERSION = 1;
+    private static final int NULL_INDEX = -1;
+    private static final byte FLAG_FAVORITE = 1;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+
+    BinaryCatalogCodec(Path path) {
+        this.path = path;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes the snapshot and publishes it with an atomic rename.
+     *
+     * @param favorites catalog positions of the favorites
+     * @param source    the JSON file the snapshot mirrors; its size and timestamp make the snapshot's version stamp
+     */
+    void write(List<Cocktail> cocktails, BitSet favorites, Path source) throws IOException {
+        var attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        var strings = new StringTable();
+        var records = new ByteArrayOutputStream(cocktails.size() * 64);
+        var recordOut = new DataOutputStream(records);
+        var body = new ByteArrayOutputStream(128);
+        var bodyOut = new DataOutputStream(body);
+
+        for (int i = 0; i < cocktails.size(); i++) {
+            Cocktail cocktail = cocktails.get(i);
+            body.reset();
+            bodyOut.writeInt(strings.indexOf(cocktail.getName()));
+            bodyOut.writeInt(strings.indexOf(cocktail.getDescription()));
+            bodyOut.writeInt(strings.indexOf(cocktail.getIcon()));
+            bodyOut.writeInt(strings.indexOf(cocktail.getImage()));
+            bodyOut.writeByte(favorites.get(i) ? FLAG_FAVORITE : 0);
+            List<String> ingredients = cocktail.getIngredients();
+            if (ingredients == null) {
+                bodyOut.writeShort(NULL_INDEX);
+            } else {
+                bodyOut.writeShort(ingredients.size());
+                for (String ingredient : ingredients) {
+                    bodyOut.writeInt(strings.indexOf(ingredient));
+                }
+            }
+            recordOut.writeInt(body.size());
+            body.writeTo(recordOut);
+        }
+
+        Path tempFile = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try (var out = new DataOutputStream(Files.newOutputStream(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(attributes.size());
+            out.writeLong(attributes.lastModifiedTime().toMillis());
+            out.writeInt(strings.values.size());
+            for (byte[] value : strings.values) {
+                out.writeInt(value.length);
+                out.write(value);
+            }
+            out.writeInt(cocktails.size());
+            records.writeTo(out);
+        }
+
+        try {
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the snapshot through a memory-mapped buffer.
+     *
+     * @param source the JSON file the snapshot must mirror
+     * @return the cocktails, or empty if the snapshot is missing, stale, or of another format version
+     */
+    Optional<List<Cocktail>> read(Path source) {
+        if (!Files.exists(path) || !Files.exists(source)) {
+            return Optional.empty();
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                log.info("Binary snapshot {} has an unknown format, ignoring it", path);
+                return Optional.empty();
+            }
+            var attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            if (buffer.getLong() != attributes.size() || buffer.getLong() != attributes.lastModifiedTime().toMillis()) {
+                log.info("Binary snapshot {} is older than {}, ignoring it", path, source);
+                return Optional.empty();
+            }
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(buffer);
+            }
+
+            int count = buffer.getInt();
+            var cocktails = new ArrayList<Cocktail>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int next = buffer.position() + length;
+                try {
+                    cocktails.add(readRecord(buffer, strings));
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    log.warn("Skipping damaged record #{} in {}", i, path);
+                }
+                buffer.position(next);
+            }
+            return Optional.of(cocktails);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read binary snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Cocktail readRecord(ByteBuffer buffer, String[] strings) {
+        var cocktail = new Cocktail();
+        cocktail.setName(lookup(strings, buffer.getInt()));
+        cocktail.setDescription(lookup(strings, buffer.getInt()));
+        cocktail.setIcon(lookup(strings, buffer.getInt()));
+        cocktail.setImage(lookup(strings, buffer.getInt()));
+        cocktail.setFavorite((buffer.get() & FLAG_FAVORITE) != 0);
+        int ingredientCount = buffer.getShort();
+        if (ingredientCount >= 0) {
+            var ingredients = new ArrayList<String>(ingredientCount);
+            for (int i = 0; i < ingredientCount; i++) {
+                ingredients.add(lookup(strings, buffer.getInt()));
+            }
+            cocktail.setIngredients(ingredients);
+        }
+        return cocktail;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        ByteBuffer slice = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    private static String lookup(String[] strings, int index) {
+        return index == NULL_INDEX ? null : strings[index];
+    }
+
+    /**
+     * Deduplicates strings: names, icons and common ingredients are stored once.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+
+        int indexOf(String value) {
+            if (value == null) {
+                return NULL_INDEX;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                values.add(v.getBytes(StandardCharsets.UTF_8));
+                return values.size() - 1;
+            });
+        }
+    }
+}
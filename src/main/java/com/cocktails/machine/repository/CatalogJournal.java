@@ -0,0 +1,163 @@
+package com.cocktails.machine.repository;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Append-only change journal stored next to the catalog file, one JSON record per line.
+ * Appends cost the same regardless of catalog size; {@link CatalogPersister} folds the journal
+ * into a new catalog snapshot once it grows past its compaction threshold.
+ * Not thread-safe, only used from the catalog writer thread and from {@code load()}.
+ */
+@Slf4j
+class CatalogJournal {
+    private static final byte NEW_LINE = '\n';
+
+    private final Path path;
+    private final Gson gson = new Gson();
+    private FileChannel channel;
+
+    CatalogJournal(Path path) {
+        this.path = path;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    void append(JournalEntry entry) throws IOException {
+        byte[] record = gson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(record.length + 1).put(record).put(NEW_LINE).flip();
+
+        FileChannel out = openChannel();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+    }
+
+    long size() throws IOException {
+        if (channel != null) {
+            return channel.size();
+        }
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Drops all records, called once they are contained in a published snapshot.
+     */
+    void truncate() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+            channel.force(true);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Feeds every readable record to the consumer in append order.
+     * A malformed line (e.g. a record torn by a power cut) is skipped and reported.
+     *
+     * @return number of records replayed
+     */
+    int replay(Consumer<JournalEntry> consumer) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int replayed = 0;
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalEntry entry = gson.fromJson(line, JournalEntry.class);
+                    if (entry != null && entry.op() != null) {
+                        consumer.accept(entry);
+                        replayed++;
+                    }
+                } catch (JsonParseException e) {
+                    log.warn("Skipping malformed journal record in {}: {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay journal {}: {}", path, e.getMessage(), e);
+        }
+        return replayed;
+    }
+
+    void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close journal {}: {}", path, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            Path parentDir = path.getParent();
+            if (parentDir != null && !Files.exists(parentDir)) {
+                Files.createDirectories(parentDir);
+            }
+            dropTornRecord();
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    /**
+     * Cuts a record torn by a crash off the end of the file, so the next append starts on a line of its own
+     * instead of being glued to it and skipped along with it by {@link #replay}.
+     */
+    private void dropTornRecord() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = file.size();
+            var buffer = ByteBuffer.allocate(4096);
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (file.read(buffer, start + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == NEW_LINE) {
+                        truncateTo(file, start + i + 1);
+                        return;
+                    }
+                }
+                end = start;
+            }
+            truncateTo(file, 0);
+        }
+    }
+
+    private void truncateTo(FileChannel file, long size) throws IOException {
+        if (size < file.size()) {
+            log.warn("Dropping a torn record of {} bytes at the end of {}", file.size() - size, path);
+            file.truncate(size);
+            file.force(true);
+        }
+    }
+}
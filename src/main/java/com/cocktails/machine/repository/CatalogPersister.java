@@ -0,0 +1,192 @@
+package com.cocktails.machine.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence for the cocktail catalog.
+ * Changes only mark the catalog dirty; writes are coalesced over a debounce window and run on a
+ * dedicated writer thread, which writes a temp file and publishes it with an atomic rename.
+ * With a {@link CatalogJournal} each change is appended to the journal instead, and the journal is
+ * compacted into a new snapshot once it passes {@link #COMPACTION_THRESHOLD_BYTES}.
+ */
+@Slf4j
+class CatalogPersister {
+    public static final long DEBOUNCE_MILLIS = 750;
+    public static final long COMPACTION_THRESHOLD_BYTES = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path target;
+    private final Supplier<String> serializer;
+    private final CatalogJournal journal;
+    private final Consumer<Path> onPublished;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private ScheduledThreadPoolExecutor executor;
+    private boolean shutdown;
+
+    /**
+     * @param journal     journal to append changes to, or null to persist every change as a full snapshot
+     * @param onPublished called on the writer thread after a new snapshot was published at {@code target}
+     */
+    CatalogPersister(Path target, Supplier<String> serializer, CatalogJournal journal, Consumer<Path> onPublished) {
+        this.target = target;
+        this.serializer = serializer;
+        this.journal = journal;
+        this.onPublished = onPublished;
+    }
+
+    /**
+     * Records a change: appended to the journal in journal mode, otherwise folded into the next snapshot.
+     */
+    void record(JournalEntry entry) {
+        if (journal == null) {
+            markDirty();
+            return;
+        }
+        submit(() -> appendToJournal(entry), 0);
+    }
+
+    /**
+     * Records a change. The first change in a window schedules a write, later ones are folded into it.
+     */
+    void markDirty() {
+        dirty.set(true);
+        if (flushScheduled.compareAndSet(false, true)) {
+            submit(this::flushScheduledWrite, DEBOUNCE_MILLIS);
+        }
+    }
+
+    /**
+     * Writes the catalog as soon as the writer thread is free, regardless of the debounce window.
+     * In journal mode this compacts the journal.
+     */
+    void flush() {
+        dirty.set(true);
+        submit(this::writeIfDirty, 0);
+    }
+
+    /**
+     * Runs a task on the writer thread, ordered with the pending writes.
+     */
+    void execute(Runnable task) {
+        submit(task, 0);
+    }
+
+    /**
+     * Queues a final write of pending changes and lets the writer thread finish on its own.
+     * Does not wait for the write, the non-daemon writer thread keeps the JVM alive until it is done.
+     */
+    synchronized void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        if (executor != null) {
+            executor.execute(this::writeIfDirty);
+            if (journal != null) {
+                executor.execute(journal::close);
+            }
+            executor.shutdown();
+        }
+        shutdown = true;
+    }
+
+    private synchronized void submit(Runnable task, long delayMillis) {
+        if (shutdown) {
+            log.warn("Catalog persister is shut down, change to {} not written", target);
+            return;
+        }
+        if (executor == null) {
+            executor = createExecutor();
+        }
+        executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        var pool = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "catalog-writer");
+            thread.setDaemon(false);
+            return thread;
+        });
+        // The shutdown flush is queued explicitly, pending debounce timers must not delay the exit
+        pool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return pool;
+    }
+
+    private void flushScheduledWrite() {
+        flushScheduled.set(false);
+        writeIfDirty();
+    }
+
+    private void appendToJournal(JournalEntry entry) {
+        try {
+            journal.append(entry);
+            if (journal.size() >= COMPACTION_THRESHOLD_BYTES) {
+                log.info("Journal {} passed {} bytes, compacting", journal.getPath(), COMPACTION_THRESHOLD_BYTES);
+                dirty.set(true);
+                writeIfDirty();
+            }
+        } catch (IOException e) {
+            // The change is still in memory, make sure the next snapshot carries it
+            log.error("Failed to append to journal {}: {}", journal.getPath(), e.getMessage(), e);
+            markDirty();
+        }
+    }
+
+    private void writeIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            write(serializer.get());
+            log.info("Cocktails saved to {}", target.toAbsolutePath());
+            if (journal != null) {
+                // Everything journaled so far is part of the snapshot that was just published
+                journal.truncate();
+            }
+            onPublished.accept(target);
+        } catch (Exception e) {
+            // Keep the change pending so the next flush retries it
+            dirty.set(true);
+            log.error("Failed to save cocktails to {}: {}", target, e.getMessage(), e);
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Path parentDir = target.getParent();
+        if (parentDir != null && !Files.exists(parentDir)) {
+            Files.createDirectories(parentDir);
+        }
+
+        Path tempFile = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (var channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Data must be on disk before the rename publishes it, otherwise a power cut can leave an empty file
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
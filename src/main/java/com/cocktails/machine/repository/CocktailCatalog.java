@@ -0,0 +1,221 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.model.Recipe;
+import com.cocktails.machine.ui.controller.HomeScreenController.CocktailFilter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Indexed in-memory view of the loaded cocktails.
+ * Keeps a hash index by name, a favorites index, an {@link IngredientIndex} and a precomputed immutable
+ * snapshot per {@link CocktailFilter}, so lookups and filter calls never scan the whole catalog.
+ * Building a catalog also compiles every cocktail's ingredient lines into a {@link Recipe} over the
+ * {@link IngredientDictionary} ids.
+ * <p>
+ * Instances are immutable versions: a favorite or makeable change produces a new catalog that shares the cocktail
+ * list, the name index and the ingredient index with its predecessor and only copies the changed bitset,
+ * so readers can keep using the version they hold while a writer publishes the next one.
+ */
+class CocktailCatalog {
+    private final List<Cocktail> cocktails;
+    private final Map<String, Integer> positionsByName;
+    private final BitSet favorites;
+    // Cocktails the current inventory can pour, set by the inventory service
+    private final BitSet makeable;
+    private final IngredientIndex ingredientIndex;
+    private final IngredientDictionary dictionary;
+    private final Map<CocktailFilter, List<Cocktail>> snapshots;
+
+    CocktailCatalog(List<Cocktail> cocktails) {
+        this.cocktails = Collections.unmodifiableList(new ArrayList<>(cocktails));
+        this.positionsByName = new HashMap<>(Math.max(16, this.cocktails.size() * 2));
+        this.favorites = new BitSet(this.cocktails.size());
+        this.makeable = new BitSet(this.cocktails.size());
+        this.snapshots = new EnumMap<>(CocktailFilter.class);
+        this.dictionary = new IngredientDictionary();
+
+        for (int i = 0; i < this.cocktails.size(); i++) {
+            Cocktail cocktail = this.cocktails.get(i);
+            cocktail.setRecipe(compile(cocktail.getIngredients(), dictionary));
+            if (cocktail.getName() != null) {
+                // Keep the first entry on duplicate names, same as the former linear search
+                positionsByName.putIfAbsent(cocktail.getName(), i);
+            }
+            if (cocktail.isFavorite()) {
+                favorites.set(i);
+            }
+        }
+
+        this.ingredientIndex = new IngredientIndex(this.cocktails);
+        snapshots.put(CocktailFilter.ALL, this.cocktails);
+        snapshots.put(CocktailFilter.MAKEABLE, List.of());
+        rebuildFavoritesSnapshot();
+    }
+
+    private CocktailCatalog(CocktailCatalog previous, BitSet favorites, BitSet makeable) {
+        this.cocktails = previous.cocktails;
+        this.positionsByName = previous.positionsByName;
+        this.ingredientIndex = previous.ingredientIndex;
+        this.dictionary = previous.dictionary;
+        this.favorites = favorites;
+        this.makeable = makeable;
+        this.snapshots = new EnumMap<>(previous.snapshots);
+        if (favorites != previous.favorites) {
+            rebuildFavoritesSnapshot();
+        }
+        if (makeable != previous.makeable) {
+            snapshots.put(CocktailFilter.MAKEABLE, select(makeable));
+        }
+    }
+
+    static CocktailCatalog empty() {
+        return new CocktailCatalog(List.of());
+    }
+
+    List<Cocktail> cocktails() {
+        return cocktails;
+    }
+
+    /**
+     * Catalog positions of the favorites. Shared with the catalog, must not be modified.
+     */
+    BitSet favorites() {
+        return favorites;
+    }
+
+    int size() {
+        return cocktails.size();
+    }
+
+    IngredientIndex ingredients() {
+        return ingredientIndex;
+    }
+
+    IngredientDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Resolves a set of catalog positions to an immutable list in catalog order.
+     */
+    List<Cocktail> select(BitSet positions) {
+        var selected = new ArrayList<Cocktail>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            selected.add(cocktails.get(i));
+        }
+        return Collections.unmodifiableList(selected);
+    }
+
+    List<Cocktail> snapshot(CocktailFilter filterType) {
+        return snapshots.get(filterType == null ? CocktailFilter.ALL : filterType);
+    }
+
+    Optional<Cocktail> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Integer position = positionsByName.get(name);
+        return position == null ? Optional.empty() : Optional.of(cocktails.get(position));
+    }
+
+    /**
+     * Returns the catalog position of the given instance, or -1 if it does not belong to this catalog.
+     */
+    int indexOf(Cocktail cocktail) {
+        if (cocktail == null || cocktail.getName() == null) {
+            return -1;
+        }
+        Integer position = positionsByName.get(cocktail.getName());
+        return position != null && cocktails.get(position) == cocktail ? position : -1;
+    }
+
+    /**
+     * Whether the cocktail is a favorite in this version. The flag on the {@link Cocktail} itself is only the
+     * saved state it was loaded with, as the instance is shared by every version.
+     */
+    boolean isFavorite(Cocktail cocktail) {
+        int position = indexOf(cocktail);
+        return position >= 0 ? favorites.get(position) : cocktail != null && cocktail.isFavorite();
+    }
+
+    boolean isFavorite(int position) {
+        return favorites.get(position);
+    }
+
+    /**
+     * Number of favorites before the given catalog position, i.e. the cocktail's index in the favorites snapshot.
+     */
+    int favoritesRank(int position) {
+        return rank(favorites, position);
+    }
+
+    /**
+     * Index of the cocktail at the given catalog position in the makeable snapshot, or -1 if it cannot be made.
+     */
+    int makeableRank(int position) {
+        return makeable.get(position) ? rank(makeable, position) : -1;
+    }
+
+    /**
+     * Number of set bits before the position, counted in place: one step per set bit, no copy of the bitset.
+     */
+    private static int rank(BitSet bits, int position) {
+        int count = 0;
+        for (int i = bits.previousSetBit(position - 1); i >= 0; i = bits.previousSetBit(i - 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the catalog version in which the cocktail has the given favorite state, or this instance if
+     * nothing changes. The shared {@link Cocktail} instance is not modified, so older versions are unaffected.
+     */
+    CocktailCatalog withFavorite(Cocktail cocktail, boolean isFavorite) {
+        int position = indexOf(cocktail);
+        if (position < 0 || favorites.get(position) == isFavorite) {
+            return this;
+        }
+        var nextFavorites = (BitSet) favorites.clone();
+        nextFavorites.set(position, isFavorite);
+        return new CocktailCatalog(this, nextFavorites, makeable);
+    }
+
+    /**
+     * Returns the catalog version whose {@link CocktailFilter#MAKEABLE} snapshot holds the given positions.
+     */
+    CocktailCatalog withMakeable(BitSet positions) {
+        if (positions.equals(makeable)) {
+            return this;
+        }
+        return new CocktailCatalog(this, favorites, (BitSet) positions.clone());
+    }
+
+    private static Recipe compile(List<String> lines, IngredientDictionary dictionary) {
+        if (lines == null || lines.isEmpty()) {
+            return Recipe.EMPTY;
+        }
+        var ids = new int[lines.size()];
+        var amounts = new double[lines.size()];
+        var units = new byte[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            var measure = MeasureParser.parse(lines.get(i));
+            ids[i] = dictionary.intern(measure.name());
+            amounts[i] = measure.amount();
+            units[i] = (byte) measure.unit().ordinal();
+        }
+        return new Recipe(ids, amounts, units);
+    }
+
+    private void rebuildFavoritesSnapshot() {
+        snapshots.put(CocktailFilter.FAVOURITES, select(favorites));
+    }
+}
@@ -14,24 +14,42 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Singleton repository for managing cocktail data.
- * Loads cocktails from JSON at startup and saves them on exit.
+ * Loads cocktails from JSON at startup; changes are persisted write-behind by {@link CatalogPersister}.
+ * <p>
+ * Thread-safe: readers work on the immutable {@link CocktailCatalog} version that is current when they call in,
+ * writers serialize on a lock and publish the next version with a single volatile write.
  */
 public class CocktailRepository {
-    private static CocktailRepository instance;
-    private List<Cocktail> cocktails;
+    private static final String JOURNAL_FILE_NAME = "cocktails.journal";
+    private static final String BINARY_FILE_NAME = "cocktails.bin";
+    public static final String COMPARE_LOADERS_PROPERTY = "cocktail-machine.compareLoaders";
+    private volatile CocktailCatalog catalog;
+    private final Object writeLock = new Object();
+    private final List<Consumer<FavoriteChange>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> catalogListeners = new CopyOnWriteArrayList<>();
     private final Gson gson;
+    private final StreamingCatalogLoader loader;
     private final String jsonResourcePath = "/com/cocktails/machine/cocktails.json";
     private final Path jsonFilePath; // Save to user home directory for better cross-platform support
+    private final CatalogJournal journal;
+    private final BinaryCatalogCodec binaryCodec;
+    private final CatalogPersister persister;
 
     private CocktailRepository() {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
-        this.cocktails = new ArrayList<>();
+        this.loader = new StreamingCatalogLoader(gson);
+        this.catalog = CocktailCatalog.empty();
 
         String userHome = System.getProperty("user.home");
         if (userHome != null && !userHome.isEmpty()) {
@@ -39,32 +57,87 @@ public class CocktailRepository {
         } else {
             this.jsonFilePath = Paths.get("cocktails.json");
         }
+        this.journal = new CatalogJournal(jsonFilePath.resolveSibling(JOURNAL_FILE_NAME));
+        this.binaryCodec = new BinaryCatalogCodec(jsonFilePath.resolveSibling(BINARY_FILE_NAME));
+        var mode = PersistenceMode.fromSystemProperty();
+        this.persister = new CatalogPersister(jsonFilePath, this::toJson,
+                mode == PersistenceMode.JOURNAL ? journal : null, this::writeBinarySnapshot);
     }
 
     public static CocktailRepository getInstance() {
-        if (instance == null) {
-            instance = new CocktailRepository();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final CocktailRepository INSTANCE = new CocktailRepository();
     }
 
     /**
-     * Loads cocktails from JSON file.
-     * First tries to load from saved file (working directory), then falls back to resource file.
+     * Loads cocktails from the binary snapshot if it is up to date with the saved JSON file,
+     * otherwise from the saved JSON file, falling back to the resource file.
+     * Set {@value #COMPARE_LOADERS_PROPERTY} to also time the JSON path when the binary one was used.
+     * Changes recorded in the journal since the last snapshot are replayed on top.
      * Should be called at application startup.
      */
     public void load() {
+        load(true);
+    }
+
+    /**
+     * Loads like {@link #load()} without writing anything: a missing or stale binary snapshot is not rebuilt, so no
+     * writer thread is started. For tools that only read the catalog, e.g. the simulation.
+     */
+    public void loadReadOnly() {
+        load(false);
+    }
+
+    private void load(boolean rebuildSnapshot) {
+        synchronized (writeLock) {
+            var loaded = new CocktailCatalog[]{loadCatalog(rebuildSnapshot)};
+
+            int replayed = journal.replay(entry -> loaded[0] = apply(loaded[0], entry));
+            if (replayed > 0) {
+                System.out.println("Replayed " + replayed + " journal records from " + journal.getPath());
+            }
+            this.catalog = loaded[0];
+        }
+        catalogListeners.forEach(Runnable::run);
+    }
+
+    private CocktailCatalog loadCatalog(boolean rebuildSnapshot) {
+        long start = System.nanoTime();
+        var binary = binaryCodec.read(jsonFilePath);
+        if (binary.isPresent()) {
+            double binaryMillis = (System.nanoTime() - start) / 1_000_000.0;
+            System.out.printf("Loaded %d cocktails from binary snapshot in %.1f ms%n", binary.get().size(), binaryMillis);
+            if (Boolean.getBoolean(COMPARE_LOADERS_PROPERTY)) {
+                var json = loadJsonCatalog();
+                System.out.printf("Startup load comparison: binary %.1f ms, JSON %.1f ms%n",
+                        binaryMillis, json.elapsedMillis());
+            }
+            return new CocktailCatalog(binary.get());
+        }
+        var loaded = new CocktailCatalog(loadJsonCatalog().cocktails());
+        if (rebuildSnapshot && Files.exists(jsonFilePath)) {
+            // Missing or stale snapshot, rebuild it in the background for the next start. The catalog just read
+            // is written, not the published one, which is still empty while load() runs.
+            persister.execute(() -> writeBinarySnapshot(loaded, jsonFilePath));
+        }
+        return loaded;
+    }
+
+    private StreamingCatalogLoader.Result loadJsonCatalog() {
         try {
             // First, try to load from saved file (preserves user preferences like favorites)
             if (Files.exists(jsonFilePath)) {
                 try {
-                    String json = Files.readString(jsonFilePath);
-                    var data = gson.fromJson(json, CocktailData.class);
-                    if (data != null && data.getCocktails() != null) {
-                        this.cocktails = new ArrayList<>(data.getCocktails());
-                        System.out.println("Loaded " + this.cocktails.size() + " cocktails from saved file");
-                        return;
+                    var result = loader.load(Files.newBufferedReader(jsonFilePath, StandardCharsets.UTF_8), jsonFilePath.toString());
+                    // A damaged file still wins over the resource as long as something could be read from it
+                    if (!result.cocktails().isEmpty() || result.complete()) {
+                        report(result, "saved file");
+                        return result;
                     }
+                    System.err.println("Failed to load from saved file, falling back to resource");
                 } catch (Exception e) {
                     System.err.println("Failed to load from saved file, falling back to resource: " + e.getMessage());
                 }
@@ -73,69 +146,190 @@ public class CocktailRepository {
             // Fall back to resource file if saved file doesn't exist or failed to load
             InputStream is = ResourceUtils.loadResource(jsonResourcePath);
             if (is != null) {
-                var data = gson.fromJson(
-                        new InputStreamReader(is, StandardCharsets.UTF_8),
-                        CocktailData.class
-                );
-                if (data != null && data.getCocktails() != null) {
-                    this.cocktails = new ArrayList<>(data.getCocktails());
-                    System.out.println("Loaded " + this.cocktails.size() + " cocktails from resource file");
-                } else {
-                    this.cocktails = new ArrayList<>();
-                }
+                var result = loader.load(new InputStreamReader(is, StandardCharsets.UTF_8), jsonResourcePath);
+                report(result, "resource file");
+                return result;
             } else {
                 System.err.println("Warning: Could not find cocktails.json resource");
-                this.cocktails = new ArrayList<>();
             }
         } catch (Exception e) {
             System.err.println("Failed to load cocktails: " + e.getMessage());
             e.printStackTrace();
-            this.cocktails = new ArrayList<>();
         }
+        return new StreamingCatalogLoader.Result(List.of(), 0, false, 0);
+    }
+
+    private static void report(StreamingCatalogLoader.Result result, String source) {
+        System.out.printf("Loaded %d cocktails from %s in %.1f ms%n", result.cocktails().size(), source, result.elapsedMillis());
+        if (result.skipped() > 0 || !result.complete()) {
+            System.err.printf("Skipped %d malformed cocktails in %s%s%n", result.skipped(), source,
+                    result.complete() ? "" : ", file is truncated or damaged");
+        }
+    }
+
+    private static CocktailCatalog apply(CocktailCatalog target, JournalEntry entry) {
+        return switch (entry.op()) {
+            case FAVORITE -> target.findByName(entry.name())
+                    .map(cocktail -> target.withFavorite(cocktail, Boolean.parseBoolean(entry.value())))
+                    .orElse(target);
+        };
     }
 
     /**
-     * Saves cocktails to JSON file.
-     * Should be called on application exit.
+     * Requests an immediate write of the catalog on the writer thread.
+     * Does not block the caller; regular changes are already saved write-behind.
      */
     public void save() {
-        try {
-            CocktailData data = new CocktailData();
-            data.setCocktails(new ArrayList<>(cocktails));
-
-            String json = gson.toJson(data);
+        persister.flush();
+    }
 
-            // Ensure parent directory exists (important for Raspberry Pi and cross-platform)
-            Path parentDir = jsonFilePath.getParent();
-            if (parentDir != null && !Files.exists(parentDir)) {
-                Files.createDirectories(parentDir);
-            }
+    /**
+     * Flushes pending changes and stops the writer thread once they are on disk.
+     * Should be called on application exit; returns without waiting for the write.
+     */
+    public void shutdown() {
+        persister.shutdown();
+    }
 
-            Files.writeString(jsonFilePath, json, StandardCharsets.UTF_8);
+    private void writeBinarySnapshot(Path source) {
+        writeBinarySnapshot(catalog, source);
+    }
 
-            System.out.println("Cocktails saved to " + jsonFilePath.toAbsolutePath());
+    private void writeBinarySnapshot(CocktailCatalog snapshot, Path source) {
+        try {
+            binaryCodec.write(snapshot.cocktails(), snapshot.favorites(), source);
         } catch (Exception e) {
-            System.err.println("Failed to save cocktails: " + e.getMessage());
-            e.printStackTrace();
+            // A stale snapshot is detected by its version stamp on the next start
+            System.err.println("Failed to write binary snapshot " + binaryCodec.getPath() + ": " + e.getMessage());
         }
     }
 
-    public List<Cocktail> getCocktails(CocktailFilter filterType) {
-        var predicate = getPredicate(filterType);
-        return cocktails.stream().filter(predicate).toList();
+    private String toJson() {
+        var snapshot = catalog;
+        var cocktails = new ArrayList<Cocktail>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            cocktails.add(savedCopy(snapshot.cocktails().get(i), snapshot.favorites().get(i)));
+        }
+        CocktailData data = new CocktailData();
+        data.setCocktails(cocktails);
+        return gson.toJson(data);
     }
 
-    private static Predicate<Cocktail> getPredicate(CocktailFilter filterType) {
-        return filterType == CocktailFilter.FAVOURITES ? Cocktail::isFavorite : cocktail -> true;
+    /**
+     * Copy carrying the favorite state of the catalog version being saved, the shared instance is left as is.
+     */
+    private static Cocktail savedCopy(Cocktail cocktail, boolean isFavorite) {
+        var copy = new Cocktail(cocktail.getName(), cocktail.getDescription(), cocktail.getIcon());
+        copy.setImage(cocktail.getImage());
+        copy.setIngredients(cocktail.getIngredients());
+        copy.setFavorite(isFavorite);
+        return copy;
+    }
+
+    /**
+     * Returns the precomputed immutable snapshot for the given filter.
+     */
+    public List<Cocktail> getCocktails(CocktailFilter filterType) {
+        return catalog.snapshot(filterType);
     }
 
     /**
      * Finds a cocktail by name.
      */
     public Optional<Cocktail> findByName(String name) {
-        return cocktails.stream()
-                .filter(c -> c.getName().equals(name))
-                .findFirst();
+        return catalog.findByName(name);
+    }
+
+    /**
+     * Finds the cocktails that use every one of the given ingredients.
+     * Ingredient names are matched case-insensitively and without quantities ("30 ml Gin" matches "gin").
+     */
+    public List<Cocktail> findWithAllIngredients(Collection<String> ingredients) {
+        var current = catalog;
+        return current.select(current.ingredients().allOf(ingredients));
+    }
+
+    /**
+     * Finds the cocktails that use at least one of the given ingredients.
+     */
+    public List<Cocktail> findWithAnyIngredient(Collection<String> ingredients) {
+        var current = catalog;
+        return current.select(current.ingredients().anyOf(ingredients));
+    }
+
+    /**
+     * Finds the cocktails that can be made from the given ingredients alone, e.g. the bottles loaded right now.
+     */
+    public List<Cocktail> findMakeableFrom(Collection<String> availableIngredients) {
+        var current = catalog;
+        return current.select(current.ingredients().makeableFrom(availableIngredients));
+    }
+
+    /**
+     * Returns the normalized names of all ingredients used in the catalog.
+     */
+    public Set<String> getIngredientNames() {
+        return Collections.unmodifiableSet(catalog.ingredients().ingredientNames());
+    }
+
+    /**
+     * Publishes which cocktails the current inventory can pour, as catalog positions (the order of
+     * {@code getCocktails(ALL)}). Backs the {@link CocktailFilter#MAKEABLE} snapshot.
+     */
+    public void setMakeable(BitSet positions) {
+        synchronized (writeLock) {
+            catalog = catalog.withMakeable(positions);
+        }
+    }
+
+    /**
+     * Interned id of an ingredient name as used in {@link com.cocktails.machine.model.Recipe}s, or -1 if no
+     * cocktail uses it. The name is normalized like a recipe line ("  Lime Juice" finds "lime juice").
+     */
+    public int getIngredientId(String ingredientName) {
+        return catalog.dictionary().idOf(MeasureParser.parse(ingredientName).name());
+    }
+
+    public String getIngredientName(int ingredientId) {
+        return catalog.dictionary().nameOf(ingredientId);
+    }
+
+    /**
+     * Number of distinct ingredients; ids range from 0 to this value - 1.
+     */
+    public int getIngredientCount() {
+        return catalog.dictionary().size();
+    }
+
+    /**
+     * Registers a listener for favorite changes, so views can update the affected entry instead of reloading.
+     * Listeners are called on the thread that made the change.
+     */
+    public void addChangeListener(Consumer<FavoriteChange> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<FavoriteChange> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Registers a listener called after {@link #load()} published a new catalog, so caches derived from the
+     * previous recipes can be dropped. Favorite and makeable changes do not touch recipes and are not reported.
+     */
+    public void addCatalogListener(Runnable listener) {
+        catalogListeners.add(listener);
+    }
+
+    public void removeCatalogListener(Runnable listener) {
+        catalogListeners.remove(listener);
+    }
+
+    /**
+     * Whether the cocktail is a favorite in the current catalog.
+     */
+    public boolean isFavorite(Cocktail cocktail) {
+        return catalog.isFavorite(cocktail);
     }
 
     /**
@@ -143,7 +337,11 @@ public class CocktailRepository {
      */
     public void toggleFavorite(Cocktail cocktail) {
         if (cocktail != null) {
-            cocktail.toggleFavorite();
+            FavoriteChange change;
+            synchronized (writeLock) {
+                change = publishFavorite(cocktail, !catalog.isFavorite(cocktail));
+            }
+            notifyListeners(change);
         }
     }
 
@@ -152,7 +350,30 @@ public class CocktailRepository {
      */
     public void setFavorite(Cocktail cocktail, boolean isFavorite) {
         if (cocktail != null) {
-            cocktail.setFavorite(isFavorite);
+            FavoriteChange change;
+            synchronized (writeLock) {
+                change = publishFavorite(cocktail, isFavorite);
+            }
+            notifyListeners(change);
+        }
+    }
+
+    private FavoriteChange publishFavorite(Cocktail cocktail, boolean isFavorite) {
+        var previous = catalog;
+        catalog = previous.withFavorite(cocktail, isFavorite);
+        int position = catalog.indexOf(cocktail);
+        if (catalog == previous || position < 0) {
+            return null;
+        }
+        // Recorded under the write lock so journal order matches publish order
+        persister.record(JournalEntry.favorite(cocktail.getName(), isFavorite));
+        return new FavoriteChange(cocktail, isFavorite, position, catalog.favoritesRank(position),
+                catalog.makeableRank(position));
+    }
+
+    private void notifyListeners(FavoriteChange change) {
+        if (change != null) {
+            changeListeners.forEach(listener -> listener.accept(change));
         }
     }
 }
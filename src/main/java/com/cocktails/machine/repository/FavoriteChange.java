@@ -0,0 +1,15 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+
+/**
+ * Published by {@link CocktailRepository} after the favorite flag of a cocktail changed.
+ *
+ * @param catalogPosition   index of the cocktail in the unfiltered list
+ * @param favoritesPosition index of the cocktail in the favorites list: where it was inserted,
+ *                          or where it was before its removal
+ * @param makeablePosition  index of the cocktail in the makeable list, or -1 if it cannot be made
+ */
+public record FavoriteChange(Cocktail cocktail, boolean favorite, int catalogPosition, int favoritesPosition,
+                             int makeablePosition) {
+}
@@ -0,0 +1,45 @@
+package com.cocktails.machine.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns normalized ingredient names to dense int ids, in order of first appearance.
+ * Filled while a catalog is built and read-only afterwards.
+ */
+class IngredientDictionary {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the name, or -1 if no recipe uses it.
+     */
+    int idOf(String name) {
+        return ids.getOrDefault(name, -1);
+    }
+
+    String nameOf(int id) {
+        return names.get(id);
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    List<String> names() {
+        return Collections.unmodifiableList(names);
+    }
+}
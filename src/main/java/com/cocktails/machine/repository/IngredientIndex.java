@@ -0,0 +1,108 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from normalized ingredient name to the catalog positions of the cocktails using it.
+ * Every posting list is a {@link BitSet}, so all-of / any-of / makeable queries are word-wise AND/OR operations
+ * over the catalog instead of a scan of every recipe. Keys are the names {@link MeasureParser} extracts, the same
+ * the {@link IngredientDictionary} interns.
+ */
+class IngredientIndex {
+    private final int size;
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final BitSet withIngredients;
+
+    IngredientIndex(List<Cocktail> cocktails) {
+        this.size = cocktails.size();
+        this.withIngredients = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            List<String> ingredients = cocktails.get(i).getIngredients();
+            if (ingredients == null || ingredients.isEmpty()) {
+                continue;
+            }
+            withIngredients.set(i);
+            for (String ingredient : ingredients) {
+                String key = normalize(ingredient);
+                if (!key.isEmpty()) {
+                    postings.computeIfAbsent(key, k -> new BitSet(size)).set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalizes an ingredient line to the name used as index key: "30 ml  Gin " and "Gin (30 ml)" become "gin".
+     */
+    static String normalize(String ingredient) {
+        return MeasureParser.parse(ingredient).name();
+    }
+
+    Set<String> ingredientNames() {
+        return postings.keySet();
+    }
+
+    /**
+     * Positions of the cocktails that use every one of the given ingredients.
+     */
+    BitSet allOf(Collection<String> ingredients) {
+        var result = new BitSet(size);
+        if (ingredients.isEmpty()) {
+            return result;
+        }
+        result.set(0, size);
+        for (String ingredient : ingredients) {
+            BitSet posting = postings.get(normalize(ingredient));
+            if (posting == null) {
+                result.clear();
+                return result;
+            }
+            result.and(posting);
+        }
+        return result;
+    }
+
+    /**
+     * Positions of the cocktails that use at least one of the given ingredients.
+     */
+    BitSet anyOf(Collection<String> ingredients) {
+        var result = new BitSet(size);
+        for (String ingredient : ingredients) {
+            BitSet posting = postings.get(normalize(ingredient));
+            if (posting != null) {
+                result.or(posting);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Positions of the cocktails whose ingredients are all contained in the given set.
+     * Cocktails without an ingredient list are never reported as makeable.
+     */
+    BitSet makeableFrom(Collection<String> available) {
+        Set<String> availableKeys = new HashSet<>(available.size() * 2);
+        for (String ingredient : available) {
+            availableKeys.add(normalize(ingredient));
+        }
+
+        var missing = new BitSet(size);
+        postings.forEach((ingredient, posting) -> {
+            if (!availableKeys.contains(ingredient)) {
+                missing.or(posting);
+            }
+        });
+
+        var result = (BitSet) withIngredients.clone();
+        result.andNot(missing);
+        return result;
+    }
+}
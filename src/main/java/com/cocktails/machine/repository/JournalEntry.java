@@ -0,0 +1,16 @@
+package com.cocktails.machine.repository;
+
+/**
+ * A single change record of the catalog journal.
+ * Values are absolute (e.g. "favorite = true", never "toggle"), so replaying an entry twice is harmless.
+ */
+record JournalEntry(Operation op, String name, String value) {
+
+    static JournalEntry favorite(String name, boolean isFavorite) {
+        return new JournalEntry(Operation.FAVORITE, name, Boolean.toString(isFavorite));
+    }
+
+    enum Operation {
+        FAVORITE
+    }
+}
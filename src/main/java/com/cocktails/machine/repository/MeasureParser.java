@@ -0,0 +1,114 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Unit;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses free-text ingredient lines such as "30 ml gin", "1 1/2 oz. of lime juice", "2-3 dashes bitters"
+ * or "Gin (30 ml)" into amount, unit and normalized ingredient name.
+ * The name is the one ingredient key of the repository: recipes, the {@link IngredientIndex} and lookups by name
+ * all go through {@link #parse(String)}.
+ */
+class MeasureParser {
+    // Quantity, unit and name; the unit group is resolved against Unit.fromSymbol, unknown words belong to the name
+    private static final Pattern LEADING = Pattern.compile(
+            "^([\\d.,/½¼¾⅓⅔\\s-]*[\\d½¼¾⅓⅔])\\s*(fl\\.? oz\\.?|[a-z]+\\.?)?\\s+(?:of\\s+)?(.+)$");
+    private static final Pattern TRAILING = Pattern.compile(
+            "^(.+?)[\\s:,(-]+([\\d.,/½¼¾⅓⅔\\s-]*[\\d½¼¾⅓⅔])\\s*(fl\\.? oz\\.?|[a-z]+\\.?)?\\)?$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    record ParsedMeasure(String name, double amount, Unit unit) {
+    }
+
+    static ParsedMeasure parse(String line) {
+        if (line == null) {
+            return new ParsedMeasure("", 0, Unit.UNSPECIFIED);
+        }
+        String text = WHITESPACE.matcher(line.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+
+        Matcher leading = LEADING.matcher(text);
+        if (leading.matches()) {
+            Unit unit = Unit.fromSymbol(leading.group(2));
+            String name = leading.group(3);
+            if (unit == null && leading.group(2) != null) {
+                // Not a unit, e.g. "2 eggs": the word is part of the name
+                name = leading.group(2) + " " + name;
+            }
+            return measure(name, leading.group(1), unit);
+        }
+
+        Matcher trailing = TRAILING.matcher(text);
+        if (trailing.matches() && (trailing.group(3) == null || Unit.fromSymbol(trailing.group(3)) != null)) {
+            return measure(trailing.group(1), trailing.group(2), Unit.fromSymbol(trailing.group(3)));
+        }
+        return new ParsedMeasure(text, 0, Unit.UNSPECIFIED);
+    }
+
+    private static ParsedMeasure measure(String name, String quantity, Unit unit) {
+        double amount = parseAmount(quantity);
+        if (Double.isNaN(amount)) {
+            return new ParsedMeasure(name.trim(), 0, Unit.UNSPECIFIED);
+        }
+        return new ParsedMeasure(name.trim(), amount, unit == null ? Unit.COUNT : unit);
+    }
+
+    /**
+     * Parses "30", "1.5", "1,5", "1/2", "1 1/2", "1½" and ranges like "2-3" (the mean). NaN if unparseable.
+     */
+    static double parseAmount(String quantity) {
+        String[] range = quantity.trim().split("\\s*-\\s*");
+        double sum = 0;
+        int parts = 0;
+        for (String part : range) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            double value = parseMixedNumber(part);
+            if (Double.isNaN(value)) {
+                return Double.NaN;
+            }
+            sum += value;
+            parts++;
+        }
+        return parts == 0 ? Double.NaN : sum / parts;
+    }
+
+    private static double parseMixedNumber(String text) {
+        double total = 0;
+        for (String token : text.split(" ")) {
+            int slash = token.indexOf('/');
+            try {
+                if (slash > 0) {
+                    total += Double.parseDouble(token.substring(0, slash)) / Double.parseDouble(token.substring(slash + 1));
+                    continue;
+                }
+                char last = token.charAt(token.length() - 1);
+                double fraction = vulgarFraction(last);
+                if (fraction > 0) {
+                    token = token.substring(0, token.length() - 1);
+                    total += fraction;
+                }
+                if (!token.isEmpty()) {
+                    total += Double.parseDouble(token.replace(',', '.'));
+                }
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return total;
+    }
+
+    private static double vulgarFraction(char c) {
+        return switch (c) {
+            case '½' -> 0.5;
+            case '¼' -> 0.25;
+            case '¾' -> 0.75;
+            case '⅓' -> 1.0 / 3;
+            case '⅔' -> 2.0 / 3;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.cocktails.machine.repository;
+
+/**
+ * How catalog changes reach the disk.
+ */
+public enum PersistenceMode {
+    /**
+     * Every change rewrites the whole catalog file (debounced).
+     */
+    SNAPSHOT,
+    /**
+     * Every change appends a small record to a journal, which is periodically compacted into the catalog file.
+     */
+    JOURNAL;
+
+    public static final String PROPERTY = "cocktail-machine.persistence";
+
+    public static PersistenceMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return JOURNAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return JOURNAL;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@code CocktailData} document with a {@link JsonReader}, building one {@link Cocktail} at a time
+ * instead of holding the raw text and the whole object graph on the heap together.
+ * Entries that cannot be bound are skipped and reported one by one; a syntax error stops the read but
+ * keeps every entry read before it.
+ */
+@Slf4j
+class StreamingCatalogLoader {
+    private static final String COCKTAILS_FIELD = "cocktails";
+
+    private final Gson gson;
+
+    StreamingCatalogLoader(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * @param source   reader over the JSON document, closed by this method
+     * @param origin   description of the source used in log messages
+     */
+    Result load(Reader source, String origin) {
+        long start = System.nanoTime();
+        var cocktails = new ArrayList<Cocktail>();
+        int skipped = 0;
+        boolean complete = false;
+        boolean found = false;
+
+        try (var reader = new JsonReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!COCKTAILS_FIELD.equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                found = true;
+                reader.beginArray();
+                for (int index = 0; reader.hasNext(); index++) {
+                    // Only a single entry is materialized at a time
+                    JsonElement element = JsonParser.parseReader(reader);
+                    Cocktail cocktail = bind(element, index, origin);
+                    if (cocktail != null) {
+                        cocktails.add(cocktail);
+                    } else {
+                        skipped++;
+                    }
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+            complete = true;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            log.error("Malformed JSON in {} after {} entries, keeping what was read: {}",
+                    origin, cocktails.size(), e.getMessage());
+        }
+
+        return new Result(cocktails, skipped, complete && found, System.nanoTime() - start);
+    }
+
+    private Cocktail bind(JsonElement element, int index, String origin) {
+        try {
+            Cocktail cocktail = gson.fromJson(element, Cocktail.class);
+            if (cocktail == null || cocktail.getName() == null || cocktail.getName().isBlank()) {
+                log.warn("Skipping cocktail #{} in {}: missing name", index, origin);
+                return null;
+            }
+            return cocktail;
+        } catch (JsonParseException e) {
+            log.warn("Skipping cocktail #{} in {}: {}", index, origin, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param complete true if the whole document was read without syntax errors
+     */
+    record Result(List<Cocktail> cocktails, int skipped, boolean complete, long elapsedNanos) {
+
+        double elapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.cocktails.machine.service;
 
 import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.service.dispense.DispenseMetrics;
+import com.cocktails.machine.service.dispense.OrderStatus;
+import com.cocktails.machine.service.dispense.OrderTicket;
+import com.cocktails.machine.service.dispense.PourReport;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 
@@ -9,5 +16,38 @@ public interface DispenseService {
 
     boolean isReadyToDispense(Cocktail cocktail);
 
-    void dispense(Cocktail cocktail, Consumer<Float> updateCallback, Runnable finishCallback);
+    /**
+     * Queues an order. Callbacks run on the FX thread once the order is dispensed.
+     */
+    OrderTicket dispense(Cocktail cocktail, Consumer<Float> updateCallback, Runnable finishCallback);
+
+    /**
+     * Cancels an order, pouring or queued. Callable from any thread: the order's pumps are stopped before this
+     * method returns and none of its callbacks runs afterwards. The future completes with what the order poured,
+     * or with an empty list if it had already finished.
+     */
+    CompletableFuture<List<PourReport>> cancel(OrderTicket ticket);
+
+    /**
+     * Stops every pump and cancels every order. Callable from any thread; the pumps are stopped before this
+     * method returns.
+     */
+    CompletableFuture<List<PourReport>> emergencyStop();
+
+    /**
+     * Orders being dispensed and waiting, with queue position and ETA.
+     */
+    List<OrderStatus> getOrders();
+
+    DispenseMetrics getMetrics();
+
+    /**
+     * Plans the pours of the given cocktails ahead of time, so dispensing them starts without planning.
+     */
+    void prewarmPlans(Collection<Cocktail> cocktails);
+
+    /**
+     * Stops all pumps and releases the dispense thread.
+     */
+    void shutdown();
 }
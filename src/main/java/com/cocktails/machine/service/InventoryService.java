@@ -0,0 +1,51 @@
+package com.cocktails.machine.service;
+
+import com.cocktails.machine.model.Bottle;
+import com.cocktails.machine.model.Cocktail;
+
+import java.util.List;
+
+public interface InventoryService {
+
+    /**
+     * Builds the readiness index for the loaded catalog and restores the saved bottles.
+     * Must be called after the catalog has been loaded.
+     */
+    void load(List<Cocktail> cocktails, int pumpCount);
+
+    /**
+     * Whether every pumpable ingredient of the cocktail is stocked. Constant time.
+     */
+    boolean isReady(Cocktail cocktail);
+
+    /**
+     * Number of the cocktail's ingredients that are not stocked, 0 if it is ready.
+     */
+    int getMissingCount(Cocktail cocktail);
+
+    List<Bottle> getBottles();
+
+    /**
+     * Ingredient id connected to each pump, -1 for none. The same instance is returned until a bottle is changed.
+     */
+    List<Integer> getPumpIngredients();
+
+    /**
+     * Connects a bottle of the ingredient to the pump.
+     */
+    void loadBottle(int pump, String ingredient, double levelMl, double capacityMl);
+
+    void refill(int pump);
+
+    /**
+     * Registers a listener called whenever the set of ready cocktails changes, on the thread that changed it.
+     */
+    void addReadinessListener(Runnable listener);
+
+    void removeReadinessListener(Runnable listener);
+
+    /**
+     * Saves the bottle levels.
+     */
+    void shutdown();
+}
@@ -0,0 +1,466 @@
+package com.cocktails.machine.service.dispense;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Order queue that drives the pumps on a dedicated high-priority thread.
+ * <p>
+ * While orders are active the engine ticks every {@link #TICK_MICROS} µs, reads the flow meters and stops each pump
+ * as soon as its step's volume is reached, independent of how busy the FX thread is.
+ * <p>
+ * Up to {@link #PIPELINE_DEPTH} orders are in the pipeline at once: the next order primes the shared line while the
+ * current one pours, and its steps start on every pump the orders ahead of it no longer need. Each pump still
+ * serves the orders in submission order, and no more than {@code maxConcurrentPumps} run at once across all orders.
+ * {@link #getOrders()} and {@link #getMetrics()} are snapshots published by the engine thread whenever an order
+ * enters or leaves the pipeline. Listeners are called on the engine thread.
+ * <p>
+ * {@link #cancel} and {@link #emergencyStop()} stop the affected pumps on the calling thread before they return,
+ * so the time to stop is bounded by one pump start in progress on the engine thread, never by a busy or slow tick.
+ * Pumps are only started, granted and taken back under {@code pumpLock}, so a cancelled order cannot restart one,
+ * and no pump starts once {@link #shutdown()} has stopped them.
+ * <p>
+ * An engine created on a {@link VirtualClock} has no thread: everything runs on the caller, and time, including the
+ * ticks, only moves with {@link #advance(long)}. Idle periods are skipped, so a simulation of thousands of orders
+ * runs much faster than real time and gives the same result on every run. Per-order logging is left out there.
+ */
+@Slf4j
+public class DispenseEngine {
+    public static final long TICK_MICROS = 5_000;
+    public static final int PIPELINE_DEPTH = 2;
+    public static final long PRIME_NANOS = 1_500_000_000L;
+    private static final long TICK_NANOS = TICK_MICROS * 1_000;
+
+    private final PumpDriver driver;
+    private final int maxConcurrentPumps;
+    private final LongSupplier clock;
+    // Null when running on the engine thread
+    private final VirtualClock virtualClock;
+    // Null on a virtual clock
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong ids = new AtomicLong();
+    private volatile List<OrderStatus> orders = List.of();
+    private volatile DispenseMetrics metrics = DispenseMetrics.EMPTY;
+    private volatile PourObserver pourObserver;
+    // Orders submitted and not yet finished or cancelled, for cancellation from any thread
+    private final Map<Long, DispenseJob> liveJobs = new ConcurrentHashMap<>();
+
+    // Guards pumpOwners, runningPumps, stopped, every pump start and every order added to liveJobs
+    private final Object pumpLock = new Object();
+    private final DispenseJob[] pumpOwners;
+    private int runningPumps;
+    // Latched by shutdown
+    private boolean stopped;
+
+    // Engine thread only
+    private final Deque<DispenseJob> queue = new ArrayDeque<>();
+    private final List<DispenseJob> active = new ArrayList<>(PIPELINE_DEPTH);
+    private final DispenseJob.PumpGate gate = new DispenseJob.PumpGate() {
+        @Override
+        public boolean tryStart(DispenseJob job, int pump) {
+            synchronized (pumpLock) {
+                if (stopped || job.isCancelled() || pumpOwners[pump] != null || runningPumps >= maxConcurrentPumps) {
+                    return false;
+                }
+                for (DispenseJob ahead : active) {
+                    if (ahead == job) {
+                        break;
+                    }
+                    if (ahead.needsPump(pump)) {
+                        return false;
+                    }
+                }
+                pumpOwners[pump] = job;
+                runningPumps++;
+                driver.start(pump);
+                return true;
+            }
+        }
+
+        @Override
+        public void release(PourStep step, double pouredMl) {
+            synchronized (pumpLock) {
+                if (pumpOwners[step.pump()] != null) {
+                    pumpOwners[step.pump()] = null;
+                    runningPumps--;
+                }
+            }
+            if (pourObserver != null) {
+                pourObserver.onPoured(step.pump(), step.ingredientId(), pouredMl);
+            }
+        }
+    };
+    private boolean ticking;
+    private ScheduledFuture<?> ticker;
+    private long nextTickNanos;
+    private long completed;
+    private long totalWaitNanos;
+    private long firstSubmittedNanos = -1;
+
+    public DispenseEngine(PumpDriver driver, int maxConcurrentPumps) {
+        this(driver, maxConcurrentPumps, System::nanoTime, null, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "dispense-engine");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates an engine without a thread that runs on the given clock, see {@link #advance(long)}. The driver
+     * should measure flow on the same clock.
+     */
+    public DispenseEngine(PumpDriver driver, int maxConcurrentPumps, VirtualClock clock) {
+        this(driver, maxConcurrentPumps, clock, clock, null);
+    }
+
+    private DispenseEngine(PumpDriver driver, int maxConcurrentPumps, LongSupplier clock, VirtualClock virtualClock,
+                           ScheduledExecutorService scheduler) {
+        this.driver = driver;
+        this.maxConcurrentPumps = maxConcurrentPumps;
+        this.clock = clock;
+        this.virtualClock = virtualClock;
+        this.scheduler = scheduler;
+        this.pumpOwners = new DispenseJob[driver.pumpCount()];
+    }
+
+    public PumpDriver getDriver() {
+        return driver;
+    }
+
+    public int getMaxConcurrentPumps() {
+        return maxConcurrentPumps;
+    }
+
+    public void setPourObserver(PourObserver pourObserver) {
+        this.pourObserver = pourObserver;
+    }
+
+    /**
+     * Queues an order. Thread-safe.
+     *
+     * @throws IllegalArgumentException if a step refers to a pump the driver does not have
+     * @throws IllegalStateException    if the engine has been shut down
+     */
+    public OrderTicket submit(String name, PourPlan plan, DispenseListener listener) {
+        var job = new DispenseJob(ids.incrementAndGet(), name, plan, driver.pumpCount(), listener, clock.getAsLong());
+        synchronized (pumpLock) {
+            if (stopped) {
+                throw new IllegalStateException("The dispense engine has been shut down");
+            }
+            // Registered under the lock, so an emergency stop either sees the order or happens before it exists
+            liveJobs.put(job.id(), job);
+        }
+        execute(() -> {
+            queue.add(job);
+            if (firstSubmittedNanos < 0) {
+                firstSubmittedNanos = job.submittedNanos();
+            }
+            long now = clock.getAsLong();
+            admit(now);
+            publishOrders(now);
+        });
+        return new OrderTicket(job.id(), name);
+    }
+
+    /**
+     * Orders in the pipeline, then the queue, in submission order.
+     */
+    public List<OrderStatus> getOrders() {
+        return orders;
+    }
+
+    public DispenseMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Cancels an order, whether it is pouring or still queued. Thread-safe.
+     * <p>
+     * The order's pumps are stopped before this method returns, and its listener gets
+     * {@link DispenseListener#onCancelled()} on the calling thread instead of a finish. The engine thread then takes
+     * the order out of the pipeline and completes the returned future with what it poured; the future holds no
+     * report if the order had already finished.
+     */
+    public CompletableFuture<List<PourReport>> cancel(long orderId) {
+        DispenseJob job = liveJobs.get(orderId);
+        if (job == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        long started = System.nanoTime();
+        boolean first;
+        synchronized (pumpLock) {
+            first = !job.isCancelled();
+            job.cancel();
+            for (int pump = 0; pump < pumpOwners.length; pump++) {
+                if (pumpOwners[pump] == job) {
+                    driver.stop(pump);
+                }
+            }
+        }
+        log.info("Cancelled {} (order {}), pumps stopped in {} µs", job.name(), orderId, (System.nanoTime() - started) / 1_000);
+        if (first) {
+            job.listener().onCancelled();
+        }
+        return sweepCancelled();
+    }
+
+    /**
+     * Stops every pump and cancels every submitted order. Thread-safe; the pumps are stopped before this method
+     * returns, even if the engine thread is busy. The future completes with what each cancelled order poured.
+     */
+    public CompletableFuture<List<PourReport>> emergencyStop() {
+        long started = System.nanoTime();
+        List<DispenseJob> cancelled;
+        synchronized (pumpLock) {
+            cancelled = new ArrayList<>(liveJobs.values());
+            // Orders already cancelled have been told so
+            cancelled.removeIf(DispenseJob::isCancelled);
+            cancelled.forEach(DispenseJob::cancel);
+            driver.stopAll();
+        }
+        log.warn("Emergency stop, {} orders cancelled, pumps stopped in {} µs", cancelled.size(), (System.nanoTime() - started) / 1_000);
+        for (DispenseJob job : cancelled) {
+            job.listener().onCancelled();
+        }
+        return sweepCancelled();
+    }
+
+    /**
+     * Stops all pumps immediately from the calling thread and terminates the engine. No pump starts afterwards,
+     * even from a tick already in flight, and further orders are rejected.
+     */
+    public void shutdown() {
+        synchronized (pumpLock) {
+            stopped = true;
+            driver.stopAll();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Moves the virtual clock forward, running every tick that falls into the period.
+     *
+     * @throws IllegalStateException if the engine runs on its own thread
+     */
+    public void advance(long nanos) {
+        if (virtualClock == null) {
+            throw new IllegalStateException("Only an engine on a virtual clock can be advanced");
+        }
+        long end = virtualClock.now() + nanos;
+        while (ticking && nextTickNanos <= end) {
+            virtualClock.advanceTo(nextTickNanos);
+            nextTickNanos += TICK_NANOS;
+            tick();
+        }
+        virtualClock.advanceTo(end);
+    }
+
+    private void execute(Runnable task) {
+        if (scheduler == null) {
+            task.run();
+        } else {
+            scheduler.execute(task);
+        }
+    }
+
+    /**
+     * Has the engine thread take cancelled orders out of the queue and the pipeline and hand their pumps back.
+     */
+    private CompletableFuture<List<PourReport>> sweepCancelled() {
+        var reports = new CompletableFuture<List<PourReport>>();
+        try {
+            execute(() -> {
+                long now = clock.getAsLong();
+                var swept = new ArrayList<PourReport>();
+                queue.removeIf(job -> job.isCancelled() && swept.add(abort(job)));
+                active.removeIf(job -> job.isCancelled() && swept.add(abort(job)));
+                if (!swept.isEmpty()) {
+                    admit(now);
+                    publishOrders(now);
+                }
+                reports.complete(List.copyOf(swept));
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down, every pump has already been stopped
+            reports.complete(List.of());
+        }
+        return reports;
+    }
+
+    private PourReport abort(DispenseJob job) {
+        liveJobs.remove(job.id());
+        PourReport report = job.abort(driver, gate);
+        if (virtualClock == null) {
+            log.info("Cancelled {}", report);
+        }
+        return report;
+    }
+
+    private void admit(long now) {
+        while (active.size() < PIPELINE_DEPTH && !queue.isEmpty()) {
+            var job = queue.poll();
+            job.admit(now, PRIME_NANOS);
+            active.add(job);
+            if (virtualClock == null) {
+                log.info("Dispensing {} (order {}) after {} ms in queue", job.name(), job.id(), (now - job.submittedNanos()) / 1_000_000);
+            }
+        }
+        if (!active.isEmpty() && !ticking) {
+            ticking = true;
+            if (scheduler != null) {
+                ticker = scheduler.scheduleAtFixedRate(this::tick, TICK_MICROS, TICK_MICROS, TimeUnit.MICROSECONDS);
+            } else {
+                nextTickNanos = now + TICK_NANOS;
+            }
+        }
+    }
+
+    private void tick() {
+        long now = clock.getAsLong();
+        boolean changed = false;
+        try {
+            for (int i = 0; i < active.size(); i++) {
+                var job = active.get(i);
+                if (job.isCancelled()) {
+                    // Taken out by the sweep that cancel scheduled
+                    continue;
+                }
+                // A job cancelled during its last tick is reported by the sweep, not finished
+                if (job.tick(driver, now, gate) && !job.isCancelled()) {
+                    active.remove(i--);
+                    complete(job, now);
+                    changed = true;
+                }
+            }
+        } catch (RuntimeException e) {
+            // An exception would silently cancel the periodic tick and leave pumps running
+            log.error("Dispense failed, stopping all pumps", e);
+            // The orders in the pipeline did not finish: they are cancelled and report what they poured
+            var failed = new ArrayList<DispenseJob>();
+            synchronized (pumpLock) {
+                driver.stopAll();
+                for (DispenseJob job : active) {
+                    // Orders cancelled already are reported by their sweep
+                    if (!job.isCancelled()) {
+                        job.cancel();
+                        failed.add(job);
+                    }
+                }
+            }
+            active.removeAll(failed);
+            for (DispenseJob job : failed) {
+                fail(job);
+            }
+            synchronized (pumpLock) {
+                // Whatever state the failure left, every pump is stopped and free
+                Arrays.fill(pumpOwners, null);
+                runningPumps = 0;
+            }
+            changed = true;
+        }
+        if (changed) {
+            admit(now);
+            publishOrders(now);
+        }
+        if (active.isEmpty() && ticking) {
+            ticking = false;
+            if (ticker != null) {
+                ticker.cancel(false);
+                ticker = null;
+            }
+        }
+    }
+
+    /**
+     * Aborts an order the engine could not finish, without counting it in the metrics.
+     */
+    private void fail(DispenseJob job) {
+        try {
+            abort(job);
+        } catch (RuntimeException e) {
+            liveJobs.remove(job.id());
+            log.error("Could not measure what {} poured", job.name(), e);
+        }
+        try {
+            job.listener().onCancelled();
+        } catch (RuntimeException e) {
+            log.error("Cancel listener of {} failed", job.name(), e);
+        }
+    }
+
+    private void complete(DispenseJob job, long now) {
+        liveJobs.remove(job.id());
+        completed++;
+        // Counted on completion, so the mean covers the same orders as its divisor
+        totalWaitNanos += job.admittedNanos() - job.submittedNanos();
+        double hours = (now - firstSubmittedNanos) / 3_600_000_000_000.0;
+        metrics = new DispenseMetrics(completed, hours > 0 ? completed / hours : 0,
+                totalWaitNanos / (double) completed / 1_000_000_000.0);
+        if (virtualClock == null) {
+            log.info("Dispensed {} (order {}) in {} ms; {}", job.name(), job.id(), (now - job.admittedNanos()) / 1_000_000, metrics);
+        }
+        try {
+            job.listener().onFinished();
+        } catch (RuntimeException e) {
+            log.error("Finish listener of {} failed", job.name(), e);
+        }
+    }
+
+    /**
+     * Publishes the order snapshot. ETAs assume nominal flow rates, pumps serving orders in sequence and
+     * queued orders entering the pipeline as soon as a slot frees up.
+     */
+    private void publishOrders(long now) {
+        var pumpFreeAt = new long[driver.pumpCount()];
+        Arrays.fill(pumpFreeAt, now);
+        var slotsFreeAt = new PriorityQueue<Long>();
+        var snapshot = new ArrayList<OrderStatus>(active.size() + queue.size());
+
+        for (DispenseJob job : active) {
+            long eta = estimateCompletion(job, Math.max(now, job.primedNanos()), pumpFreeAt);
+            slotsFreeAt.add(eta);
+            snapshot.add(new OrderStatus(job.id(), job.name(), 0, eta));
+        }
+        for (int i = active.size(); i < PIPELINE_DEPTH; i++) {
+            slotsFreeAt.add(now);
+        }
+        int position = 1;
+        for (DispenseJob job : queue) {
+            long admitted = slotsFreeAt.poll();
+            long eta = estimateCompletion(job, admitted + PRIME_NANOS, pumpFreeAt);
+            slotsFreeAt.add(eta);
+            snapshot.add(new OrderStatus(job.id(), job.name(), position++, eta));
+        }
+        orders = List.copyOf(snapshot);
+    }
+
+    private long estimateCompletion(DispenseJob job, long primed, long[] pumpFreeAt) {
+        long eta = primed;
+        for (int pump = 0; pump < pumpFreeAt.length; pump++) {
+            if (job.needsPump(pump)) {
+                pumpFreeAt[pump] = Math.max(pumpFreeAt[pump], primed) + job.remainingNanos(driver, pump);
+                eta = Math.max(eta, pumpFreeAt[pump]);
+            }
+        }
+        return eta;
+    }
+}
@@ -0,0 +1,215 @@
+package com.cocktails.machine.service.dispense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pour state of one order. After the shared line has been primed, the steps of the plan start in planned order,
+ * each as soon as its pump is free, its layer is the lowest unfinished one and the gate grants the pump.
+ * Confined to the engine thread, except for the cancellation flag.
+ */
+final class DispenseJob {
+    private final long id;
+    private final String name;
+    private final DispenseListener listener;
+    private final long submittedNanos;
+    private final List<PourStep> pending;
+    private final PourStep[] running;
+    private final double totalMl;
+    private double completedMl;
+    // Measured by the flow meters, including what flowed past a step's target
+    private double pouredMl;
+    private volatile boolean cancelled;
+    private double reportedPercentage = -1;
+    private long admittedNanos;
+    private long primedNanos;
+
+    DispenseJob(long id, String name, PourPlan plan, int pumpCount, DispenseListener listener, long submittedNanos) {
+        this.id = id;
+        this.name = name;
+        this.listener = listener;
+        this.submittedNanos = submittedNanos;
+        this.running = new PourStep[pumpCount];
+        for (PourStep step : plan.steps()) {
+            if (step.pump() < 0 || step.pump() >= pumpCount) {
+                throw new IllegalArgumentException("No pump " + step.pump() + " for ingredient " + step.ingredientId());
+            }
+        }
+        this.pending = new ArrayList<>(plan.steps());
+        this.totalMl = plan.totalMl();
+    }
+
+    long id() {
+        return id;
+    }
+
+    String name() {
+        return name;
+    }
+
+    DispenseListener listener() {
+        return listener;
+    }
+
+    long submittedNanos() {
+        return submittedNanos;
+    }
+
+    long admittedNanos() {
+        return admittedNanos;
+    }
+
+    /**
+     * Takes the order into the pipeline and starts priming the shared line.
+     */
+    void admit(long now, long primeNanos) {
+        admittedNanos = now;
+        primedNanos = now + primeNanos;
+        report(0);
+    }
+
+    boolean isPriming(long now) {
+        return now < primedNanos;
+    }
+
+    long primedNanos() {
+        return primedNanos;
+    }
+
+    /**
+     * Whether steps for the pump are still running or waiting, so later orders must not take it yet.
+     */
+    boolean needsPump(int pump) {
+        if (running[pump] != null) {
+            return true;
+        }
+        for (PourStep step : pending) {
+            if (step.pump() == pump) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimated time the pump still has to run for this order, at the nominal flow rate.
+     */
+    long remainingNanos(PumpDriver driver, int pump) {
+        double ml = 0;
+        if (running[pump] != null) {
+            ml += Math.max(0, running[pump].volumeMl() - driver.dispensedMl(pump));
+        }
+        for (PourStep step : pending) {
+            if (step.pump() == pump) {
+                ml += step.volumeMl();
+            }
+        }
+        return (long) (ml / driver.flowRateMlPerSecond(pump) * 1_000_000_000L);
+    }
+
+    /**
+     * Stops every pump that reached its target, then starts the pending steps that may run now.
+     *
+     * @return true once every step has been poured
+     */
+    boolean tick(PumpDriver driver, long now, PumpGate gate) {
+        if (isPriming(now)) {
+            return false;
+        }
+        double inFlight = 0;
+        int lowestLayer = Integer.MAX_VALUE;
+        for (int pump = 0; pump < running.length; pump++) {
+            PourStep step = running[pump];
+            if (step == null) {
+                continue;
+            }
+            double poured = driver.dispensedMl(pump);
+            if (poured >= step.volumeMl()) {
+                driver.stop(pump);
+                completedMl += step.volumeMl();
+                running[pump] = null;
+                double measured = driver.dispensedMl(pump);
+                pouredMl += measured;
+                gate.release(step, measured);
+            } else {
+                inFlight += poured;
+                lowestLayer = Math.min(lowestLayer, step.layer());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            // Steps are in planned start order, so the first pending step has the lowest pending layer
+            int layer = Math.min(lowestLayer, pending.get(0).layer());
+            for (int i = 0; i < pending.size(); i++) {
+                PourStep step = pending.get(i);
+                if (step.layer() > layer) {
+                    break;
+                }
+                if (running[step.pump()] == null && gate.tryStart(this, step.pump())) {
+                    running[step.pump()] = step;
+                    pending.remove(i--);
+                }
+            }
+        }
+
+        report(totalMl == 0 ? 100 : Math.min(100, (completedMl + inFlight) / totalMl * 100));
+        return pending.isEmpty() && isIdle();
+    }
+
+    /**
+     * Marks the order as cancelled. Thread-safe; the gate must not grant pumps to a cancelled order.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Takes back the pumps of a cancelled order, which must already be stopped, and reports what it poured.
+     */
+    PourReport abort(PumpDriver driver, PumpGate gate) {
+        for (int pump = 0; pump < running.length; pump++) {
+            PourStep step = running[pump];
+            if (step != null) {
+                running[pump] = null;
+                double measured = driver.dispensedMl(pump);
+                pouredMl += measured;
+                gate.release(step, measured);
+            }
+        }
+        pending.clear();
+        return new PourReport(id, name, pouredMl, totalMl);
+    }
+
+    private boolean isIdle() {
+        for (PourStep step : running) {
+            if (step != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void report(double percentage) {
+        if (percentage != reportedPercentage) {
+            reportedPercentage = percentage;
+            listener.onProgress(percentage);
+        }
+    }
+
+    /**
+     * Hands out pumps to the orders in the pipeline and takes them back with the volume each step poured.
+     */
+    interface PumpGate {
+
+        /**
+         * Grants the pump to the job and starts it, or returns false if the job has to wait.
+         */
+        boolean tryStart(DispenseJob job, int pump);
+
+        void release(PourStep step, double pouredMl);
+    }
+}
@@ -0,0 +1,22 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * Receives the progress of a dispense job. Called on the engine thread, so implementations must return quickly
+ * and hand UI work over to the FX thread themselves.
+ */
+public interface DispenseListener {
+
+    /**
+     * @param percentage share of the job's total volume poured so far, 0-100
+     */
+    void onProgress(double percentage);
+
+    void onFinished();
+
+    /**
+     * Called instead of {@link #onFinished()} when the order is cancelled, on the thread that cancelled it,
+     * after its pumps have been stopped. Progress may still be reported by a tick already in flight.
+     */
+    default void onCancelled() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * @param completed        orders poured since startup
+ * @param drinksPerHour    completed orders over the time from the first submission to the last completion
+ * @param meanWaitSeconds  mean time from submission until the order entered the pipeline, over the completed orders
+ */
+public record DispenseMetrics(long completed, double drinksPerHour, double meanWaitSeconds) {
+
+    public static final DispenseMetrics EMPTY = new DispenseMetrics(0, 0, 0);
+
+    @Override
+    public String toString() {
+        return "completed=%d drinksPerHour=%.1f meanWait=%.1fs".formatted(completed, drinksPerHour, meanWaitSeconds);
+    }
+}
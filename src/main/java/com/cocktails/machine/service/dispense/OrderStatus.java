@@ -0,0 +1,23 @@
+package com.cocktails.machine.service.dispense;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of an order in the queue.
+ *
+ * @param position  0 while the order is being primed or poured, 1 for the next one in line, and so on
+ * @param etaNanos  estimated completion on the {@link System#nanoTime()} clock
+ */
+public record OrderStatus(long id, String name, int position, long etaNanos) {
+
+    public boolean isDispensing() {
+        return position == 0;
+    }
+
+    /**
+     * Estimated time until the order is ready, never negative.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, etaNanos - System.nanoTime()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * Handle of a submitted order, used to find it in {@link DispenseEngine#getOrders()}.
+ */
+public record OrderTicket(long id, String name) {
+}
@@ -0,0 +1,12 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * Notified of every completed pour step, e.g. to draw down bottle levels. Called on the engine thread.
+ */
+public interface PourObserver {
+
+    /**
+     * @param volumeMl volume measured by the flow meter, which may exceed the step's target by one tick of flow
+     */
+    void onPoured(int pump, int ingredientId, double volumeMl);
+}
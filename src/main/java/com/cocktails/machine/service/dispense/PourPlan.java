@@ -0,0 +1,20 @@
+package com.cocktails.machine.service.dispense;
+
+import java.util.List;
+
+/**
+ * Schedule of one drink across the pumps.
+ *
+ * @param steps         ordered by planned start
+ * @param makespanNanos planned time from the first step's start to the last step's end, at nominal flow rates
+ */
+public record PourPlan(List<PourStep> steps, long makespanNanos) {
+
+    public PourPlan {
+        steps = List.copyOf(steps);
+    }
+
+    public double totalMl() {
+        return steps.stream().mapToDouble(PourStep::volumeMl).sum();
+    }
+}
@@ -0,0 +1,166 @@
+package com.cocktails.machine.service.dispense;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Turns a recipe into a {@link PourPlan} that keeps the drink's makespan short.
+ * <p>
+ * Layers are scheduled one after another. Within a layer the requests are placed longest first (LPT list
+ * scheduling), each on the pump carrying its ingredient where it would finish earliest, given the pump's flow rate,
+ * the steps already on that pump and the {@link PumpConfiguration#maxConcurrentPumps()} power budget. Requests for
+ * an ingredient no pump carries are left out of the plan. Plans are cached per recipe key and
+ * pump configuration, so planning only happens on the first pour or during {@link #prewarm}. The cache is an LRU
+ * bounded by {@value #MAX_PLANS_PROPERTY} entries, as every bottle change brings a new configuration, and is
+ * dropped with {@link #clear()} when the recipes behind the keys change.
+ */
+@Slf4j
+public class PourPlanner {
+    public static final String MAX_PLANS_PROPERTY = "cocktail-machine.planCacheSize";
+    public static final int DEFAULT_MAX_PLANS = 2048;
+
+    private final int maxPlans;
+    // Guarded by itself
+    private final Map<PlanKey, PourPlan> plans;
+
+    public PourPlanner() {
+        this(Integer.getInteger(MAX_PLANS_PROPERTY, DEFAULT_MAX_PLANS));
+    }
+
+    public PourPlanner(int maxPlans) {
+        this.maxPlans = Math.max(1, maxPlans);
+        this.plans = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PlanKey, PourPlan> eldest) {
+                return size() > PourPlanner.this.maxPlans;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached plan for the recipe and configuration, planning it on a miss.
+     *
+     * @param recipeKey identifies the recipe, e.g. the cocktail name
+     * @param requests  supplies the recipe's requests on a cache miss
+     */
+    public PourPlan planFor(String recipeKey, Supplier<List<PourRequest>> requests, PumpConfiguration configuration) {
+        var key = new PlanKey(recipeKey, configuration);
+        synchronized (plans) {
+            var cached = plans.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Planned outside the lock; a concurrent miss for the same key plans twice and keeps the first result
+        var planned = plan(requests.get(), configuration);
+        synchronized (plans) {
+            var cached = plans.putIfAbsent(key, planned);
+            return cached != null ? cached : planned;
+        }
+    }
+
+    /**
+     * Drops every cached plan, e.g. after the catalog was reloaded and a recipe key may stand for other requests.
+     */
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    /**
+     * Number of cached plans.
+     */
+    public int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    /**
+     * Plans ahead of time, e.g. for the whole catalog at startup.
+     */
+    public void prewarm(Map<String, List<PourRequest>> recipes, PumpConfiguration configuration) {
+        long start = System.nanoTime();
+        recipes.forEach((recipeKey, requests) -> planFor(recipeKey, () -> requests, configuration));
+        log.info("Pour plans ready for {} recipes in {} ms", recipes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Plans without caching.
+     */
+    public PourPlan plan(List<PourRequest> requests, PumpConfiguration configuration) {
+        int pumpCount = configuration.pumpCount();
+        int slotCount = Math.min(configuration.maxConcurrentPumps(), pumpCount);
+        var pumpFreeAt = new long[pumpCount];
+        var steps = new ArrayList<PourStep>(requests.size());
+
+        var layers = new TreeMap<Integer, List<PourRequest>>();
+        for (PourRequest request : requests) {
+            if (request.volumeMl() > 0) {
+                layers.computeIfAbsent(request.layer(), layer -> new ArrayList<>()).add(request);
+            }
+        }
+
+        long layerStart = 0;
+        for (var layer : layers.entrySet()) {
+            var tasks = layer.getValue();
+            tasks.sort(Comparator.comparingDouble(PourRequest::volumeMl).reversed());
+            // Each slot is a sequence of non-overlapping steps, so at most slotCount pumps run at once
+            var slots = new PriorityQueue<Long>();
+            for (int i = 0; i < slotCount; i++) {
+                slots.add(layerStart);
+            }
+
+            long layerEnd = layerStart;
+            for (PourRequest task : tasks) {
+                long slotFree = slots.poll();
+                int bestPump = -1;
+                long bestStart = 0;
+                long bestEnd = Long.MAX_VALUE;
+                for (int pump = 0; pump < pumpCount; pump++) {
+                    if (configuration.pumpIngredient(pump) != task.ingredientId()) {
+                        continue;
+                    }
+                    long start = Math.max(pumpFreeAt[pump], slotFree);
+                    long end = start + durationNanos(task.volumeMl(), configuration.flowRate(pump));
+                    if (end < bestEnd) {
+                        bestPump = pump;
+                        bestStart = start;
+                        bestEnd = end;
+                    }
+                }
+                if (bestPump < 0) {
+                    log.warn("No pump carries ingredient {}, leaving it out of the plan", task.ingredientId());
+                    slots.add(slotFree);
+                    continue;
+                }
+                pumpFreeAt[bestPump] = bestEnd;
+                slots.add(bestEnd);
+                layerEnd = Math.max(layerEnd, bestEnd);
+                steps.add(new PourStep(bestPump, task.ingredientId(), task.volumeMl(), layer.getKey(), bestStart));
+            }
+            Arrays.fill(pumpFreeAt, layerEnd);
+            layerStart = layerEnd;
+        }
+
+        steps.sort(Comparator.comparingLong(PourStep::plannedStartNanos).thenComparingInt(PourStep::pump));
+        return new PourPlan(steps, layerStart);
+    }
+
+    private static long durationNanos(double volumeMl, double flowRateMlPerSecond) {
+        return (long) (volumeMl / flowRateMlPerSecond * 1_000_000_000L);
+    }
+
+    private record PlanKey(String recipeKey, PumpConfiguration configuration) {
+    }
+}
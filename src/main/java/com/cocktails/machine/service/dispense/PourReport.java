@@ -0,0 +1,15 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * What an order had poured when it was cancelled.
+ *
+ * @param pouredMl   volume measured by the flow meters
+ * @param plannedMl  volume of the whole plan
+ */
+public record PourReport(long orderId, String name, double pouredMl, double plannedMl) {
+
+    @Override
+    public String toString() {
+        return "%s (order %d): %.1f of %.1f ml".formatted(name, orderId, pouredMl, plannedMl);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * An ingredient a recipe needs, before it is assigned to a pump.
+ *
+ * @param ingredientId interned ingredient id, see {@link com.cocktails.machine.model.Recipe}; -1 if unknown
+ * @param layer        pour order constraint, lower layers are poured first; equal layers may pour at the same time
+ */
+public record PourRequest(int ingredientId, double volumeMl, int layer) {
+}
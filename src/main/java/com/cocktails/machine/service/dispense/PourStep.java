@@ -0,0 +1,11 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * One ingredient poured by one pump.
+ *
+ * @param ingredientId       interned ingredient id, see {@link com.cocktails.machine.model.Recipe}; -1 if unknown
+ * @param layer              steps of a layer start only after every step of the previous layers has finished
+ * @param plannedStartNanos  start offset from the beginning of the pour in the plan, used to order the steps
+ */
+public record PourStep(int pump, int ingredientId, double volumeMl, int layer, long plannedStartNanos) {
+}
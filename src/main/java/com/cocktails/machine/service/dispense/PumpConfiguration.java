@@ -0,0 +1,46 @@
+package com.cocktails.machine.service.dispense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pump setup a plan is made for. Plans are cached per configuration, so it must change whenever a flow rate,
+ * the power budget or a bottle assignment does.
+ *
+ * @param flowRates           nominal flow rate of each pump in ml/s
+ * @param maxConcurrentPumps  how many pumps the power supply can run at the same time
+ * @param pumpIngredients     ingredient id connected to each pump, -1 for none
+ */
+public record PumpConfiguration(List<Double> flowRates, int maxConcurrentPumps, List<Integer> pumpIngredients) {
+
+    public PumpConfiguration {
+        flowRates = List.copyOf(flowRates);
+        pumpIngredients = List.copyOf(pumpIngredients);
+        if (flowRates.size() != pumpIngredients.size()) {
+            throw new IllegalArgumentException("Every pump needs a flow rate and an ingredient");
+        }
+        if (maxConcurrentPumps < 1) {
+            throw new IllegalArgumentException("At least one pump must be able to run");
+        }
+    }
+
+    public static PumpConfiguration of(PumpDriver driver, int maxConcurrentPumps, List<Integer> pumpIngredients) {
+        var rates = new ArrayList<Double>(driver.pumpCount());
+        for (int pump = 0; pump < driver.pumpCount(); pump++) {
+            rates.add(driver.flowRateMlPerSecond(pump));
+        }
+        return new PumpConfiguration(rates, maxConcurrentPumps, pumpIngredients);
+    }
+
+    public int pumpCount() {
+        return flowRates.size();
+    }
+
+    public double flowRate(int pump) {
+        return flowRates.get(pump);
+    }
+
+    public int pumpIngredient(int pump) {
+        return pumpIngredients.get(pump);
+    }
+}
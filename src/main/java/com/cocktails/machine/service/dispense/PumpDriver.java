@@ -0,0 +1,34 @@
+package com.cocktails.machine.service.dispense;
+
+/**
+ * Hardware abstraction for the machine's pumps and their flow meters.
+ * Pumps are numbered from 0 to {@link #pumpCount()} - 1. Implementations must be safe to call from the
+ * dispense engine thread while another thread stops a pump.
+ */
+public interface PumpDriver {
+
+    int pumpCount();
+
+    /**
+     * Nominal flow rate, used to estimate pour durations.
+     */
+    double flowRateMlPerSecond(int pump);
+
+    /**
+     * Opens the valve and starts the pump. Resets the pump's flow meter reading to zero.
+     */
+    void start(int pump);
+
+    void stop(int pump);
+
+    /**
+     * Volume measured since the last {@link #start(int)}, including what flowed after a stop.
+     */
+    double dispensedMl(int pump);
+
+    default void stopAll() {
+        for (int pump = 0; pump < pumpCount(); pump++) {
+            stop(pump);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cocktails.machine.service.dispense;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Pump driver without hardware: every pump flows at a constant rate while it runs, and the flow meter reading is
+ * derived from the running time on the given clock.
+ */
+public class SimulatedPumpDriver implements PumpDriver {
+
+    private final double[] flowRates;
+    private final LongSupplier nanoClock;
+    private final long[] startedAt;
+    private final double[] stoppedVolumes;
+    private final boolean[] running;
+
+    public SimulatedPumpDriver(int pumpCount, double flowRateMlPerSecond) {
+        this(pumpCount, flowRateMlPerSecond, System::nanoTime);
+    }
+
+    public SimulatedPumpDriver(int pumpCount, double flowRateMlPerSecond, LongSupplier nanoClock) {
+        this.flowRates = new double[pumpCount];
+        Arrays.fill(flowRates, flowRateMlPerSecond);
+        this.nanoClock = nanoClock;
+        this.startedAt = new long[pumpCount];
+        this.stoppedVolumes = new double[pumpCount];
+        this.running = new boolean[pumpCount];
+    }
+
+    @Override
+    public int pumpCount() {
+        return flowRates.length;
+    }
+
+    @Override
+    public double flowRateMlPerSecond(int pump) {
+        return flowRates[pump];
+    }
+
+    @Override
+    public synchronized void start(int pump) {
+        startedAt[pump] = nanoClock.getAsLong();
+        stoppedVolumes[pump] = 0;
+        running[pump] = true;
+    }
+
+    @Override
+    public synchronized void stop(int pump) {
+        if (running[pump]) {
+            stoppedVolumes[pump] = volumeSinceStart(pump);
+            running[pump] = false;
+        }
+    }
+
+    @Override
+    public synchronized double dispensedMl(int pump) {
+        return running[pump] ? volumeSinceStart(pump) : stoppedVolumes[pump];
+    }
+
+    private double volumeSinceStart(int pump) {
+        return (nanoClock.getAsLong() - startedAt[pump]) / 1_000_000_000.0 * flowRates[pump];
+    }
+}
@@ -0,0 +1,34 @@
+package com.cocktails.machine.service.dispense;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Nanosecond clock that only moves when told to, for running the dispense engine and the simulated drivers
+ * faster than real time and deterministically. Not thread-safe; a simulation runs on one thread.
+ */
+public class VirtualClock implements LongSupplier {
+    private long nanos;
+
+    @Override
+    public long getAsLong() {
+        return nanos;
+    }
+
+    public long now() {
+        return nanos;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the given time is in the past
+     */
+    public void advanceTo(long nanos) {
+        if (nanos < this.nanos) {
+            throw new IllegalArgumentException("A virtual clock cannot go back in time");
+        }
+        this.nanos = nanos;
+    }
+
+    public void advance(long nanos) {
+        advanceTo(this.nanos + nanos);
+    }
+}
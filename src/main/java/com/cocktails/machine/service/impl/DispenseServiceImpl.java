@@ -1,54 +1,146 @@
 package com.cocktails.machine.service.impl;
 
 import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.model.Recipe;
+import com.cocktails.machine.model.Unit;
+import com.cocktails.machine.repository.CocktailRepository;
 import com.cocktails.machine.service.DispenseService;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import com.cocktails.machine.service.dispense.DispenseEngine;
+import com.cocktails.machine.service.dispense.DispenseMetrics;
+import com.cocktails.machine.service.dispense.OrderStatus;
+import com.cocktails.machine.service.dispense.OrderTicket;
+import com.cocktails.machine.service.dispense.PourPlan;
+import com.cocktails.machine.service.dispense.PourPlanner;
+import com.cocktails.machine.service.dispense.PourReport;
+import com.cocktails.machine.service.dispense.PourRequest;
+import com.cocktails.machine.service.dispense.PumpConfiguration;
+import com.cocktails.machine.service.dispense.SimulatedPumpDriver;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class DispenseServiceImpl implements DispenseService {
 
-    public static final int FINISH_DISPENSE = 100;
-    public static final float DISPENSE_INCREMENT = 2.46f;
-    public static final Duration DURATION = Duration.seconds(0.1);
+    public static final int PUMP_COUNT = 6;
+    public static final double FLOW_RATE_ML_PER_SECOND = 20;
+    // Power budget of the pump supply
+    public static final int MAX_CONCURRENT_PUMPS = 4;
+    // Volume of recipe lines without a quantity
+    public static final double DEFAULT_INGREDIENT_ML = 30;
 
-    private Timeline dispenseTimeline;
-    private static DispenseService instance;
+    private final DispenseEngine engine = new DispenseEngine(new SimulatedPumpDriver(PUMP_COUNT, FLOW_RATE_ML_PER_SECOND), MAX_CONCURRENT_PUMPS);
+    private final PourPlanner planner = new PourPlanner();
+    private final InventoryServiceImpl inventory = InventoryServiceImpl.getInstance();
+    private volatile PumpConfiguration configuration;
+
+    private DispenseServiceImpl() {
+        engine.setPourObserver(inventory);
+        // Plans are keyed by cocktail name, a reloaded catalog may pour something else under the same name
+        CocktailRepository.getInstance().addCatalogListener(planner::clear);
+    }
 
     public static DispenseService getInstance() {
-        if (instance == null) {
-            instance = new DispenseServiceImpl();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final DispenseService INSTANCE = new DispenseServiceImpl();
     }
 
     @Override
     public boolean isReadyToDispense(Cocktail cocktail) {
-        return true;
-    }
-
-    @Override
-    public void dispense(Cocktail cocktail, Consumer<Float> updateCallback, Runnable finishCallback) {
-        var currentProgress = new float[]{0.0f};
-        dispenseTimeline = getDispenseTimeline(updateCallback, finishCallback, currentProgress);
-        dispenseTimeline.play();
-    }
-
-    private Timeline getDispenseTimeline(Consumer<Float> updateCallback, Runnable finishCallback, float[] progress) {
-        var timeline = new Timeline(
-                new KeyFrame(DURATION, e -> {
-                    progress[0] += DISPENSE_INCREMENT;
-                    if (progress[0] >= FINISH_DISPENSE) {
-                        progress[0] = FINISH_DISPENSE;
-                        finishCallback.run();
-                        dispenseTimeline.stop();
-                    }
-                    updateCallback.accept(progress[0]);
-                })
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        return timeline;
+        return inventory.isReady(cocktail);
+    }
+
+    /**
+     * Queues the cocktail on the dispense engine. Progress is delivered on the FX thread, at most once per
+     * pending runLater, followed by the finish callback.
+     */
+    @Override
+    public OrderTicket dispense(Cocktail cocktail, Consumer<Float> updateCallback, Runnable finishCallback) {
+        return engine.submit(cocktail.getName(), planFor(cocktail), new FxDispenseListener(updateCallback, finishCallback));
+    }
+
+    @Override
+    public CompletableFuture<List<PourReport>> cancel(OrderTicket ticket) {
+        return engine.cancel(ticket.id());
+    }
+
+    @Override
+    public CompletableFuture<List<PourReport>> emergencyStop() {
+        return engine.emergencyStop();
+    }
+
+    @Override
+    public void prewarmPlans(Collection<Cocktail> cocktails) {
+        var recipes = new LinkedHashMap<String, List<PourRequest>>();
+        for (Cocktail cocktail : cocktails) {
+            recipes.putIfAbsent(cocktail.getName(), requestsFor(cocktail));
+        }
+        planner.prewarm(recipes, configuration());
+    }
+
+    @Override
+    public List<OrderStatus> getOrders() {
+        return engine.getOrders();
+    }
+
+    @Override
+    public DispenseMetrics getMetrics() {
+        return engine.getMetrics();
+    }
+
+    @Override
+    public void shutdown() {
+        engine.shutdown();
+    }
+
+    private PourPlan planFor(Cocktail cocktail) {
+        return planner.planFor(cocktail.getName(), () -> requestsFor(cocktail), configuration());
+    }
+
+    /**
+     * Configuration for the bottles currently connected, rebuilt only when the inventory's pump mapping changes.
+     */
+    private PumpConfiguration configuration() {
+        List<Integer> pumpIngredients = inventory.getPumpIngredients();
+        if (pumpIngredients.isEmpty()) {
+            pumpIngredients = Collections.nCopies(PUMP_COUNT, -1);
+        }
+        PumpConfiguration current = configuration;
+        if (current == null || !current.pumpIngredients().equals(pumpIngredients)) {
+            current = PumpConfiguration.of(engine.getDriver(), MAX_CONCURRENT_PUMPS, pumpIngredients);
+            configuration = current;
+        }
+        return current;
+    }
+
+    /**
+     * Volume the pumps pour for a recipe line: {@link #DEFAULT_INGREDIENT_ML} for lines without a quantity
+     * (e.g. a top-up), 0 for garnishes and counts.
+     */
+    static double pumpVolumeMl(Recipe recipe, int line) {
+        return recipe.unit(line) == Unit.UNSPECIFIED ? DEFAULT_INGREDIENT_ML : recipe.volumeMl(line);
+    }
+
+    /**
+     * Pumpable lines of the compiled recipe, all in one layer so the planner may pour them at once.
+     * A cocktail without any pumpable line is never ready, so it is not planned for.
+     */
+    static List<PourRequest> requestsFor(Cocktail cocktail) {
+        Recipe recipe = cocktail.getRecipe();
+        var requests = new ArrayList<PourRequest>(recipe.size());
+        for (int line = 0; line < recipe.size(); line++) {
+            double volume = pumpVolumeMl(recipe, line);
+            if (volume > 0) {
+                requests.add(new PourRequest(recipe.ingredientId(line), volume, 0));
+            }
+        }
+        return requests;
     }
 }
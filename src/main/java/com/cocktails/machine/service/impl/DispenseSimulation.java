@@ -0,0 +1,138 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.model.Bottle;
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.service.dispense.DispenseEngine;
+import com.cocktails.machine.service.dispense.DispenseListener;
+import com.cocktails.machine.service.dispense.PourPlan;
+import com.cocktails.machine.service.dispense.PourPlanner;
+import com.cocktails.machine.service.dispense.PourStep;
+import com.cocktails.machine.service.dispense.PumpConfiguration;
+import com.cocktails.machine.service.dispense.SimulatedPumpDriver;
+import com.cocktails.machine.service.dispense.VirtualClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Replays random orders through the dispense engine on a {@link VirtualClock}, for capacity planning.
+ * <p>
+ * The pumps, flow rates, power budget and planner are those of {@link DispenseServiceImpl}; the bottles are a copy
+ * of the given inventory, so the real one is not touched. Orders arrive as a Poisson process and pick a cocktail of
+ * the menu uniformly. An order is turned away if the bottles, minus what the orders ahead of it will pour, cannot
+ * cover its plan. The same seed always gives the same report.
+ */
+public class DispenseSimulation {
+    private static final long NANOS_PER_HOUR = 3_600_000_000_000L;
+    private static final long DRAIN_STEP_NANOS = 1_000_000_000L;
+
+    private final List<Cocktail> menu;
+    private final List<Bottle> bottles;
+
+    /**
+     * @param menu     cocktails guests may order
+     * @param bottles  bottles at the start, one per pump as in {@link com.cocktails.machine.service.InventoryService#getBottles()}
+     */
+    public DispenseSimulation(List<Cocktail> menu, List<Bottle> bottles) {
+        if (menu.isEmpty()) {
+            throw new IllegalArgumentException("The menu is empty, nothing can be ordered");
+        }
+        if (bottles.size() != DispenseServiceImpl.PUMP_COUNT) {
+            throw new IllegalArgumentException("Expected a bottle entry for each of the " + DispenseServiceImpl.PUMP_COUNT + " pumps");
+        }
+        this.menu = List.copyOf(menu);
+        this.bottles = List.copyOf(bottles);
+    }
+
+    public SimulationReport run(int orderCount, double ordersPerHour, long seed) {
+        long wallStart = System.nanoTime();
+        var clock = new VirtualClock();
+        var driver = new SimulatedPumpDriver(DispenseServiceImpl.PUMP_COUNT, DispenseServiceImpl.FLOW_RATE_ML_PER_SECOND, clock);
+        var engine = new DispenseEngine(driver, DispenseServiceImpl.MAX_CONCURRENT_PUMPS, clock);
+        var configuration = PumpConfiguration.of(driver, DispenseServiceImpl.MAX_CONCURRENT_PUMPS,
+                bottles.stream().map(Bottle::ingredientId).toList());
+        var planner = new PourPlanner();
+        var random = new SplittableRandom(seed);
+
+        double[] levels = bottles.stream().mapToDouble(Bottle::levelMl).toArray();
+        // Levels minus what accepted orders have yet to pour
+        double[] unreserved = levels.clone();
+        engine.setPourObserver((pump, ingredientId, volumeMl) -> levels[pump] = Math.max(0, levels[pump] - volumeMl));
+
+        var waits = new long[orderCount];
+        var served = new int[1];
+        var lastFinished = new long[1];
+        int turnedAway = 0;
+        double meanGapNanos = NANOS_PER_HOUR / ordersPerHour;
+
+        for (int i = 0; i < orderCount; i++) {
+            if (i > 0) {
+                // Exponential inter-arrival times
+                engine.advance((long) (-Math.log(1 - random.nextDouble()) * meanGapNanos));
+            }
+            Cocktail cocktail = menu.get(random.nextInt(menu.size()));
+            PourPlan plan = planner.planFor(cocktail.getName(), () -> DispenseServiceImpl.requestsFor(cocktail), configuration);
+            if (plan.steps().isEmpty() || !reserve(plan, unreserved)) {
+                turnedAway++;
+                continue;
+            }
+            long submitted = clock.now();
+            engine.submit(cocktail.getName(), plan, new DispenseListener() {
+                @Override
+                public void onProgress(double percentage) {
+                }
+
+                @Override
+                public void onFinished() {
+                    waits[served[0]++] = clock.now() - submitted;
+                    lastFinished[0] = clock.now();
+                }
+            });
+        }
+        while (!engine.getOrders().isEmpty()) {
+            engine.advance(DRAIN_STEP_NANOS);
+        }
+        engine.shutdown();
+
+        var finalBottles = new ArrayList<Bottle>(bottles.size());
+        for (Bottle bottle : bottles) {
+            finalBottles.add(new Bottle(bottle.pump(), bottle.ingredientId(), bottle.ingredient(),
+                    levels[bottle.pump()], bottle.capacityMl()));
+        }
+        long[] sorted = Arrays.copyOf(waits, served[0]);
+        Arrays.sort(sorted);
+        double hours = lastFinished[0] / (double) NANOS_PER_HOUR;
+        return new SimulationReport(orderCount, served[0], turnedAway, hours,
+                hours > 0 ? served[0] / hours : 0,
+                engine.getMetrics().meanWaitSeconds(),
+                seconds(sorted.length == 0 ? 0 : Arrays.stream(sorted).sum() / sorted.length),
+                seconds(sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.95) - 1]),
+                seconds(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                finalBottles, (System.nanoTime() - wallStart) / 1_000_000);
+    }
+
+    /**
+     * Takes the plan's volumes out of the unreserved levels, if every pump has enough left.
+     */
+    private static boolean reserve(PourPlan plan, double[] unreserved) {
+        double[] needed = new double[unreserved.length];
+        for (PourStep step : plan.steps()) {
+            needed[step.pump()] += step.volumeMl();
+        }
+        for (int pump = 0; pump < needed.length; pump++) {
+            if (needed[pump] > unreserved[pump]) {
+                return false;
+            }
+        }
+        for (int pump = 0; pump < needed.length; pump++) {
+            unreserved[pump] -= needed[pump];
+        }
+        return true;
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.service.dispense.DispenseListener;
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands engine progress over to the FX thread. At most one {@link Platform#runLater} is outstanding at a time;
+ * progress reported while it is pending only replaces the value it will deliver. Once cancelled, nothing more is
+ * delivered, including updates already posted.
+ */
+class FxDispenseListener implements DispenseListener {
+    private static final long NO_UPDATE = Double.doubleToRawLongBits(Double.NaN);
+
+    private final Consumer<Float> updateCallback;
+    private final Runnable finishCallback;
+    private final AtomicLong latest = new AtomicLong(NO_UPDATE);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean cancelled;
+
+    FxDispenseListener(Consumer<Float> updateCallback, Runnable finishCallback) {
+        this.updateCallback = updateCallback;
+        this.finishCallback = finishCallback;
+    }
+
+    @Override
+    public void onProgress(double percentage) {
+        latest.set(Double.doubleToRawLongBits(percentage));
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::deliver);
+        }
+    }
+
+    @Override
+    public void onFinished() {
+        Platform.runLater(() -> {
+            deliver();
+            if (!cancelled) {
+                finishCallback.run();
+            }
+        });
+    }
+
+    @Override
+    public void onCancelled() {
+        cancelled = true;
+    }
+
+    private void deliver() {
+        scheduled.set(false);
+        if (cancelled) {
+            return;
+        }
+        long bits = latest.getAndSet(NO_UPDATE);
+        if (bits != NO_UPDATE) {
+            updateCallback.accept((float) Double.longBitsToDouble(bits));
+        }
+    }
+}
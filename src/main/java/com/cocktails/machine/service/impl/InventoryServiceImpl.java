@@ -0,0 +1,429 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.model.Bottle;
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.repository.CocktailRepository;
+import com.cocktails.machine.service.InventoryService;
+import com.cocktails.machine.service.dispense.PourObserver;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Bottle levels and pump-to-ingredient mapping, saved to {@code ~/.cocktail-machine/inventory.json}.
+ * <p>
+ * Every completed pour step draws down the level of its pump. Levels feed a {@link ReadinessIndex}; when a level
+ * crosses what a recipe needs the ready set is published as an immutable bitset, to the repository's
+ * makeable snapshot and to the readiness listeners, so {@link #isReady} is a single bit lookup.
+ * Without a saved inventory, the most used ingredients of the catalog are connected to the pumps with full bottles.
+ * <p>
+ * Saving is write-behind, like the catalog's: a change only marks the inventory dirty, and the changes of a
+ * {@link #DEBOUNCE_MILLIS} window are written together on a dedicated writer thread, so a crash loses at most
+ * that window instead of every level change since startup.
+ */
+@Slf4j
+public class InventoryServiceImpl implements InventoryService, PourObserver {
+
+    public static final double DEFAULT_CAPACITY_ML = 700;
+    public static final long DEBOUNCE_MILLIS = 2_000;
+    private static final String INVENTORY_FILE = "inventory.json";
+
+    private final Object lock = new Object();
+    private final Path file;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final CocktailRepository repository = CocktailRepository.getInstance();
+    // Guarded by lock
+    private int[] pumpIngredients = new int[0];
+    // Ingredient name per pump as loaded, kept when it no longer resolves to an id so saving does not drop the bottle
+    private String[] pumpNames = new String[0];
+    private double[] levels = new double[0];
+    private double[] capacities = new double[0];
+    private ReadinessIndex readiness;
+    // Published snapshots, replaced on change
+    private volatile Map<Cocktail, Integer> positions = Map.of();
+    private volatile BitSet ready = new BitSet();
+    private volatile List<Integer> pumpIngredientList = List.of();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // Guarded by this
+    private ScheduledThreadPoolExecutor writer;
+    private boolean shutdown;
+
+    private InventoryServiceImpl() {
+        String userHome = System.getProperty("user.home");
+        if (userHome != null && !userHome.isEmpty()) {
+            this.file = Paths.get(userHome, ".cocktail-machine", INVENTORY_FILE);
+        } else {
+            this.file = Paths.get(INVENTORY_FILE);
+        }
+    }
+
+    public static InventoryServiceImpl getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final InventoryServiceImpl INSTANCE = new InventoryServiceImpl();
+    }
+
+    @Override
+    public void load(List<Cocktail> cocktails, int pumpCount) {
+        synchronized (lock) {
+            var byCocktail = new IdentityHashMap<Cocktail, Integer>(cocktails.size() * 2);
+            for (int i = 0; i < cocktails.size(); i++) {
+                byCocktail.put(cocktails.get(i), i);
+            }
+            readiness = new ReadinessIndex(cocktails, repository.getIngredientCount());
+            pumpIngredients = new int[pumpCount];
+            pumpNames = new String[pumpCount];
+            levels = new double[pumpCount];
+            capacities = new double[pumpCount];
+            Arrays.fill(pumpIngredients, -1);
+
+            if (!restore()) {
+                connectMostUsed();
+            }
+            for (int ingredient : pumpIngredients) {
+                readiness.setStock(ingredient, stock(ingredient));
+            }
+            positions = byCocktail;
+            publishMapping();
+            publishReadiness();
+            log.info("Inventory loaded: {} of {} cocktails ready", ready.cardinality(), cocktails.size());
+        }
+    }
+
+    @Override
+    public boolean isReady(Cocktail cocktail) {
+        Integer position = positions.get(cocktail);
+        return position != null && ready.get(position);
+    }
+
+    @Override
+    public int getMissingCount(Cocktail cocktail) {
+        Integer position = positions.get(cocktail);
+        if (position == null) {
+            return Integer.MAX_VALUE;
+        }
+        synchronized (lock) {
+            return readiness.missingCount(position);
+        }
+    }
+
+    @Override
+    public List<Bottle> getBottles() {
+        synchronized (lock) {
+            var bottles = new ArrayList<Bottle>(levels.length);
+            for (int pump = 0; pump < levels.length; pump++) {
+                int ingredient = pumpIngredients[pump];
+                bottles.add(new Bottle(pump, ingredient, pumpNames[pump], levels[pump], capacities[pump]));
+            }
+            return bottles;
+        }
+    }
+
+    @Override
+    public List<Integer> getPumpIngredients() {
+        return pumpIngredientList;
+    }
+
+    @Override
+    public void loadBottle(int pump, String ingredient, double levelMl, double capacityMl) {
+        int ingredientId = repository.getIngredientId(ingredient);
+        synchronized (lock) {
+            int previous = pumpIngredients[pump];
+            pumpIngredients[pump] = ingredientId;
+            pumpNames[pump] = ingredientId < 0 ? ingredient : repository.getIngredientName(ingredientId);
+            levels[pump] = Math.min(levelMl, capacityMl);
+            capacities[pump] = capacityMl;
+            boolean changed = previous >= 0 && readiness.setStock(previous, stock(previous));
+            changed |= ingredientId >= 0 && readiness.setStock(ingredientId, stock(ingredientId));
+            if (previous != ingredientId) {
+                publishMapping();
+            }
+            if (changed) {
+                publishReadiness();
+            }
+        }
+        markDirty();
+        notifyListeners();
+    }
+
+    @Override
+    public void refill(int pump) {
+        boolean changed;
+        synchronized (lock) {
+            levels[pump] = capacities[pump];
+            changed = updateStock(pumpIngredients[pump]);
+        }
+        markDirty();
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Draws down the pump's bottle. Called on the dispense engine thread.
+     */
+    @Override
+    public void onPoured(int pump, int ingredientId, double volumeMl) {
+        boolean changed;
+        synchronized (lock) {
+            if (pump >= levels.length) {
+                return;
+            }
+            levels[pump] = Math.max(0, levels[pump] - volumeMl);
+            changed = updateStock(pumpIngredients[pump]);
+        }
+        markDirty();
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    @Override
+    public void addReadinessListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeReadinessListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queues a final write of pending changes and lets the writer thread finish on its own; the non-daemon thread
+     * keeps the JVM alive until the inventory is saved.
+     */
+    @Override
+    public synchronized void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        if (dirty.get()) {
+            submit(this::writeIfDirty, 0);
+        }
+        if (writer != null) {
+            writer.shutdown();
+        }
+        shutdown = true;
+    }
+
+    /**
+     * Records a change. The first change in a window schedules a write, later ones are folded into it.
+     */
+    private void markDirty() {
+        dirty.set(true);
+        if (flushScheduled.compareAndSet(false, true)) {
+            submit(this::flushScheduledWrite, DEBOUNCE_MILLIS);
+        }
+    }
+
+    private synchronized void submit(Runnable task, long delayMillis) {
+        if (shutdown) {
+            log.warn("Inventory writer is shut down, change to {} not written", file);
+            return;
+        }
+        if (writer == null) {
+            writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                var thread = new Thread(runnable, "inventory-writer");
+                thread.setDaemon(false);
+                return thread;
+            });
+            // The shutdown write is queued explicitly, pending debounce timers must not delay the exit
+            writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        writer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushScheduledWrite() {
+        flushScheduled.set(false);
+        writeIfDirty();
+    }
+
+    private void writeIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            String content;
+            synchronized (lock) {
+                if (readiness == null) {
+                    // Never loaded, an empty inventory must not replace the saved one
+                    return;
+                }
+                content = toJson();
+            }
+            write(content);
+        } catch (IOException e) {
+            // Keep the change pending so the next write retries it
+            dirty.set(true);
+            log.error("Failed to save inventory to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean updateStock(int ingredient) {
+        if (ingredient < 0 || !readiness.setStock(ingredient, stock(ingredient))) {
+            return false;
+        }
+        publishReadiness();
+        return true;
+    }
+
+    private double stock(int ingredient) {
+        double stock = 0;
+        for (int pump = 0; pump < pumpIngredients.length; pump++) {
+            if (pumpIngredients[pump] == ingredient) {
+                stock += levels[pump];
+            }
+        }
+        return stock;
+    }
+
+    private void publishReadiness() {
+        var snapshot = readiness.copyReady();
+        ready = snapshot;
+        repository.setMakeable(snapshot);
+    }
+
+    private void publishMapping() {
+        pumpIngredientList = IntStream.of(pumpIngredients).boxed().toList();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private void connectMostUsed() {
+        int[] mostUsed = IntStream.range(0, repository.getIngredientCount())
+                .boxed()
+                .filter(ingredient -> readiness.usage(ingredient) > 0)
+                .sorted(Comparator.comparingInt(readiness::usage).reversed())
+                .limit(pumpIngredients.length)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int pump = 0; pump < mostUsed.length; pump++) {
+            pumpIngredients[pump] = mostUsed[pump];
+            pumpNames[pump] = repository.getIngredientName(mostUsed[pump]);
+            levels[pump] = DEFAULT_CAPACITY_ML;
+            capacities[pump] = DEFAULT_CAPACITY_ML;
+        }
+        log.info("No saved inventory, connected the {} most used ingredients", mostUsed.length);
+    }
+
+    private boolean restore() {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (var reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("bottles")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    readBottle(reader);
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to read inventory from {}, using defaults: {}", file, e.getMessage());
+            Arrays.fill(pumpIngredients, -1);
+            Arrays.fill(pumpNames, null);
+            Arrays.fill(levels, 0);
+            Arrays.fill(capacities, 0);
+            return false;
+        }
+    }
+
+    private void readBottle(JsonReader reader) throws IOException {
+        int pump = -1;
+        String ingredient = null;
+        double level = 0;
+        double capacity = DEFAULT_CAPACITY_ML;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "pump" -> pump = reader.nextInt();
+                case "ingredient" -> ingredient = reader.nextString();
+                case "levelMl" -> level = reader.nextDouble();
+                case "capacityMl" -> capacity = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (pump < 0 || pump >= pumpIngredients.length || ingredient == null) {
+            log.warn("Ignoring bottle for pump {} ({})", pump, ingredient);
+            return;
+        }
+        int ingredientId = repository.getIngredientId(ingredient);
+        if (ingredientId < 0) {
+            log.warn("No cocktail uses {} on pump {}", ingredient, pump);
+        }
+        pumpIngredients[pump] = ingredientId;
+        pumpNames[pump] = ingredientId < 0 ? ingredient : repository.getIngredientName(ingredientId);
+        levels[pump] = level;
+        capacities[pump] = capacity;
+    }
+
+    private String toJson() throws IOException {
+        var content = new StringWriter();
+        try (var writer = new JsonWriter(content)) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("bottles").beginArray();
+            for (int pump = 0; pump < levels.length; pump++) {
+                if (pumpNames[pump] == null) {
+                    continue;
+                }
+                writer.beginObject();
+                writer.name("pump").value(pump);
+                writer.name("ingredient").value(pumpNames[pump]);
+                writer.name("levelMl").value(levels[pump]);
+                writer.name("capacityMl").value(capacities[pump]);
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+        return content.toString();
+    }
+
+    private void write(String content) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tempFile = file.resolveSibling(INVENTORY_FILE + ".tmp");
+        Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.model.Recipe;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Which cocktails the current stock can pour, maintained incrementally.
+ * <p>
+ * A cocktail needs of each ingredient the sum of its pumpable lines of that ingredient, and the ingredient is
+ * covered for it while the stock is at least that amount. Every cocktail keeps a count of its uncovered ingredients
+ * and is ready while the count is zero. Per ingredient, the cocktails using it are sorted by what they need, so a
+ * stock change only touches the cocktails whose need lies between the old and the new stock.
+ * Not thread-safe; owned by the inventory service lock.
+ */
+class ReadinessIndex {
+    // Per ingredient: the cocktails using it and what each needs, ascending by need
+    private final int[][] cocktailsByIngredient;
+    private final double[][] requiredMl;
+    private final double[] stock;
+    private final int[] missing;
+    private final BitSet ready;
+
+    /**
+     * Starts with no stock of any ingredient.
+     */
+    ReadinessIndex(List<Cocktail> cocktails, int ingredientCount) {
+        this.stock = new double[ingredientCount];
+        this.missing = new int[cocktails.size()];
+        this.ready = new BitSet(cocktails.size());
+
+        var needed = new double[ingredientCount];
+        var usage = new int[ingredientCount];
+        forEachNeed(cocktails, needed, (cocktail, ingredient, volume) -> {
+            usage[ingredient]++;
+            missing[cocktail]++;
+        });
+
+        this.cocktailsByIngredient = new int[ingredientCount][];
+        this.requiredMl = new double[ingredientCount][];
+        for (int i = 0; i < ingredientCount; i++) {
+            cocktailsByIngredient[i] = new int[usage[i]];
+            requiredMl[i] = new double[usage[i]];
+        }
+        var filled = new int[ingredientCount];
+        forEachNeed(cocktails, needed, (cocktail, ingredient, volume) -> {
+            cocktailsByIngredient[ingredient][filled[ingredient]] = cocktail;
+            requiredMl[ingredient][filled[ingredient]++] = volume;
+        });
+        for (int i = 0; i < ingredientCount; i++) {
+            sortByNeed(i);
+        }
+
+        for (int c = 0; c < missing.length; c++) {
+            if (missing[c] == 0) {
+                // Nothing to pump, the machine cannot make it
+                missing[c] = 1;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface NeedVisitor {
+        void visit(int cocktail, int ingredient, double volumeMl);
+    }
+
+    /**
+     * Visits every cocktail's summed need of each pumpable ingredient, once per cocktail and ingredient.
+     */
+    private static void forEachNeed(List<Cocktail> cocktails, double[] needed, NeedVisitor visitor) {
+        for (int c = 0; c < cocktails.size(); c++) {
+            Recipe recipe = cocktails.get(c).getRecipe();
+            for (int line = 0; line < recipe.size(); line++) {
+                needed[recipe.ingredientId(line)] += DispenseServiceImpl.pumpVolumeMl(recipe, line);
+            }
+            for (int line = 0; line < recipe.size(); line++) {
+                int ingredient = recipe.ingredientId(line);
+                // Reported at the ingredient's first line, then reset so later lines of it are skipped
+                if (needed[ingredient] > 0) {
+                    visitor.visit(c, ingredient, needed[ingredient]);
+                }
+                needed[ingredient] = 0;
+            }
+        }
+    }
+
+    private void sortByNeed(int ingredient) {
+        int[] cocktails = cocktailsByIngredient[ingredient];
+        double[] amounts = requiredMl[ingredient];
+        int[] order = IntStream.range(0, cocktails.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> amounts[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        var sortedCocktails = new int[order.length];
+        var sortedAmounts = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedCocktails[i] = cocktails[order[i]];
+            sortedAmounts[i] = amounts[order[i]];
+        }
+        cocktailsByIngredient[ingredient] = sortedCocktails;
+        requiredMl[ingredient] = sortedAmounts;
+    }
+
+    /**
+     * Updates an ingredient's stock.
+     *
+     * @return true if the ready set changed
+     */
+    boolean setStock(int ingredient, double stockMl) {
+        if (ingredient < 0 || ingredient >= stock.length || stockMl == stock[ingredient]) {
+            return false;
+        }
+        double previous = stock[ingredient];
+        stock[ingredient] = stockMl;
+        // Needs in (lower, upper] flip: covered when the stock rose, uncovered when it fell
+        double[] needs = requiredMl[ingredient];
+        int from = firstAbove(needs, Math.min(previous, stockMl));
+        int to = firstAbove(needs, Math.max(previous, stockMl));
+        int delta = stockMl > previous ? -1 : 1;
+        boolean changed = false;
+        for (int i = from; i < to; i++) {
+            int c = cocktailsByIngredient[ingredient][i];
+            missing[c] += delta;
+            boolean isReady = missing[c] == 0;
+            if (ready.get(c) != isReady) {
+                ready.set(c, isReady);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Index of the first need greater than the value, by binary search.
+     */
+    private static int firstAbove(double[] needs, double value) {
+        int low = 0;
+        int high = needs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (needs[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int missingCount(int position) {
+        return missing[position];
+    }
+
+    /**
+     * Number of cocktails that use the ingredient in a pumpable line.
+     */
+    int usage(int ingredient) {
+        return cocktailsByIngredient[ingredient].length;
+    }
+
+    BitSet copyReady() {
+        return (BitSet) ready.clone();
+    }
+}
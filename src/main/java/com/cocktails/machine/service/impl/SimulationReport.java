@@ -0,0 +1,35 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.model.Bottle;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link DispenseSimulation} run.
+ *
+ * @param turnedAway        orders that could not be accepted because a bottle would have run dry
+ * @param hours             virtual time from the first order to the last drink
+ * @param meanQueueSeconds  mean time from order until the drink entered the pipeline
+ * @param meanWaitSeconds   mean time from order until the drink was ready, likewise the percentile and maximum
+ * @param inventory         bottle levels after the last drink
+ * @param wallMillis        real time the simulation took
+ */
+public record SimulationReport(int orders, int served, int turnedAway, double hours, double drinksPerHour,
+                               double meanQueueSeconds, double meanWaitSeconds, double p95WaitSeconds,
+                               double maxWaitSeconds, List<Bottle> inventory, long wallMillis) {
+
+    @Override
+    public String toString() {
+        var text = new StringBuilder()
+                .append("Orders: %d, served %d, turned away %d%n".formatted(orders, served, turnedAway))
+                .append("Throughput: %.1f drinks/hour over %.2f h%n".formatted(drinksPerHour, hours))
+                .append("Queue: mean %.1f s; order to drink: mean %.1f s, p95 %.1f s, max %.1f s%n"
+                        .formatted(meanQueueSeconds, meanWaitSeconds, p95WaitSeconds, maxWaitSeconds))
+                .append("Inventory:%n".formatted());
+        for (Bottle bottle : inventory) {
+            text.append("  pump %d: %s %.0f / %.0f ml%n".formatted(bottle.pump(),
+                    bottle.ingredient() == null ? "-" : bottle.ingredient(), bottle.levelMl(), bottle.capacityMl()));
+        }
+        return text.append("Simulated in %d ms".formatted(wallMillis)).toString();
+    }
+}
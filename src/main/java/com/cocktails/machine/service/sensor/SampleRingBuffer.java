@@ -0,0 +1,74 @@
+package com.cocktails.machine.service.sensor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Lock-free single-producer, single-consumer ring of raw samples, without boxing.
+ * The producer publishes a slot with a release write of its index and the consumer frees slots the same way,
+ * so neither side ever blocks. When the consumer falls behind by a full ring, new samples are dropped and counted.
+ */
+final class SampleRingBuffer {
+    private final double[] values;
+    private final int mask;
+    // Next slot to write, advanced by the producer only
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to read, advanced by the consumer only
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    SampleRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.values = new double[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side.
+     *
+     * @return false if the ring was full and the sample was dropped
+     */
+    boolean offer(double value) {
+        long next = head.get();
+        if (next - tail.get() == values.length) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        values[(int) next & mask] = value;
+        head.lazySet(next + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side: hands every sample written so far to the consumer, oldest first.
+     *
+     * @return the number of samples drained
+     */
+    int drain(DoubleConsumer consumer) {
+        long first = tail.get();
+        long end = head.get();
+        for (long i = first; i < end; i++) {
+            consumer.accept(values[(int) i & mask]);
+        }
+        tail.lazySet(end);
+        return (int) (end - first);
+    }
+
+    /**
+     * Drops every sample written so far. Consumer side, or while no consumer runs.
+     */
+    void clear() {
+        tail.lazySet(head.get());
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,159 @@
+package com.cocktails.machine.service.sensor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Samples a {@link SensorSource} at a high rate and publishes a smoothed, downsampled value.
+ * <p>
+ * A sampler on a virtual thread reads the source at a fixed rate into a {@link SampleRingBuffer}, so a slow read
+ * or a slow consumer never holds up the other side. A filter stage on a second virtual thread drains the ring at
+ * the publish rate, runs every sample through an exponential moving average with the given time constant and hands
+ * the current average to the sink. The sink is called on the filter thread and must hand the value over itself,
+ * e.g. to the FX thread.
+ * <p>
+ * {@link #stop()} returns once both threads have ended, so the ring and the average only ever have one sampler and
+ * one filter, also across a restart.
+ */
+@Slf4j
+public class SensorPipeline {
+    private final String name;
+    private final SensorSource source;
+    private final long sampleIntervalNanos;
+    private final long publishIntervalNanos;
+    // Weight of one sample in the moving average
+    private final double alpha;
+    private final DoubleConsumer sink;
+    private final SampleRingBuffer ring;
+    // Guarded by this
+    private boolean running;
+    // Guarded by this; kept after a stop until the threads have ended
+    private Thread sampler;
+    private Thread filter;
+    // Filter thread only
+    private double average = Double.NaN;
+
+    /**
+     * @param sampleIntervalNanos   time between two reads of the source
+     * @param publishIntervalNanos  time between two values handed to the sink
+     * @param smoothingNanos        time constant of the moving average
+     */
+    public SensorPipeline(String name, SensorSource source, long sampleIntervalNanos, long publishIntervalNanos,
+                          long smoothingNanos, DoubleConsumer sink) {
+        if (sampleIntervalNanos <= 0 || publishIntervalNanos < sampleIntervalNanos) {
+            throw new IllegalArgumentException("Samples must be taken at least as often as values are published");
+        }
+        this.name = name;
+        this.source = source;
+        this.sampleIntervalNanos = sampleIntervalNanos;
+        this.publishIntervalNanos = publishIntervalNanos;
+        this.alpha = 1 - Math.exp(-(double) sampleIntervalNanos / smoothingNanos);
+        this.sink = sink;
+        // Room for several publish intervals, so a late filter pass does not lose samples
+        this.ring = new SampleRingBuffer((int) (4 * publishIntervalNanos / sampleIntervalNanos));
+    }
+
+    /**
+     * Starts sampling. The first published value is the first sample; the average builds up from there.
+     * Threads of a previous run that have not ended yet, because the stopping thread was interrupted, are waited
+     * for first.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        awaitThreads(false);
+        // Samples the last run took after its final drain would otherwise open the new average
+        ring.clear();
+        running = true;
+        sampler = Thread.ofVirtual().name(name + "-sampler").start(() -> runEvery(sampleIntervalNanos, this::sample));
+        filter = Thread.ofVirtual().name(name + "-filter").start(() -> {
+            average = Double.NaN;
+            runEvery(publishIntervalNanos, this::publish);
+        });
+    }
+
+    /**
+     * Stops sampling and waits for both threads to end. If the calling thread is interrupted while waiting, this
+     * returns early with the interrupt flag set, and the next {@link #start()} finishes the wait.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        sampler.interrupt();
+        filter.interrupt();
+        if (awaitThreads(true)) {
+            log.info("{} stopped, {} samples dropped", name, ring.dropped());
+        }
+    }
+
+    /**
+     * Joins the sampler and filter threads, if any.
+     *
+     * @param interruptible whether an interrupt of the calling thread ends the wait
+     * @return true if both threads have ended
+     */
+    private boolean awaitThreads(boolean interruptible) {
+        boolean interrupted = false;
+        try {
+            for (Thread thread : new Thread[]{sampler, filter}) {
+                while (thread != null && thread.isAlive()) {
+                    try {
+                        thread.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        if (interruptible) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            sampler = null;
+            filter = null;
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs the task at a fixed rate without drift until the thread is interrupted; a late run is not made up for.
+     */
+    private void runEvery(long intervalNanos, Runnable task) {
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("{} failed", Thread.currentThread().getName(), e);
+            }
+            next += intervalNanos;
+            long now = System.nanoTime();
+            if (next < now) {
+                next = now;
+            } else {
+                LockSupport.parkNanos(next - now);
+            }
+        }
+    }
+
+    private void sample() {
+        ring.offer(source.read());
+    }
+
+    private void publish() {
+        if (ring.drain(this::smooth) > 0) {
+            sink.accept(average);
+        }
+    }
+
+    private void smooth(double sample) {
+        average = Double.isNaN(average) ? sample : average + alpha * (sample - average);
+    }
+}
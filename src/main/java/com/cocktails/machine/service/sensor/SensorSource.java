@@ -0,0 +1,14 @@
+package com.cocktails.machine.service.sensor;
+
+/**
+ * A sensor that can be read on demand, e.g. the chiller's temperature probe.
+ * Only called from the sampler thread of one {@link SensorPipeline}, so implementations need not be thread-safe,
+ * but may block for the duration of a conversion.
+ */
+public interface SensorSource {
+
+    /**
+     * Takes one raw reading.
+     */
+    double read();
+}
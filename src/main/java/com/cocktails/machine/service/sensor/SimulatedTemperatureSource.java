@@ -0,0 +1,29 @@
+package com.cocktails.machine.service.sensor;
+
+import java.util.Random;
+
+/**
+ * Temperature source without hardware: uniformly random readings between 15 and 30 °C.
+ */
+public class SimulatedTemperatureSource implements SensorSource {
+    private static final double MIN_CELSIUS = 15;
+    private static final double MAX_CELSIUS = 30;
+
+    private final Random random;
+
+    public SimulatedTemperatureSource() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source of the readings; a seeded one gives the same readings on every run
+     */
+    public SimulatedTemperatureSource(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public double read() {
+        return random.nextDouble(MIN_CELSIUS, MAX_CELSIUS);
+    }
+}
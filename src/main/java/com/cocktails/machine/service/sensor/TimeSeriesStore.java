@@ -0,0 +1,378 @@
+package com.cocktails.machine.service.sensor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Size-capped history of one sensor in a memory-mapped ring file, e.g. {@code ~/.cocktail-machine/temperature.ts}.
+ * <p>
+ * The file holds three rings of fixed-width records, each overwriting its oldest records when full:
+ * <ul>
+ *     <li>{@link Resolution#RAW}: at most one reading per raw interval, as timestamp and float (12 bytes)</li>
+ *     <li>{@link Resolution#MINUTE} and {@link Resolution#HOUR}: min, max, mean and count of the readings in the
+ *     period (24 bytes)</li>
+ * </ul>
+ * With the defaults of {@link #forSeries(String)} a week of 2 s readings, a month of minutes and a year of hours
+ * take under 5 MB. Appending only does primitive arithmetic and absolute puts into the mapped buffer, so it does
+ * not allocate; the OS writes dirty pages back, {@link #flush()} forces them out. Periods still in progress are
+ * kept in memory and included in queries; {@link #close()} writes them out and reopening picks them up again, only
+ * a crash loses them.
+ * <p>
+ * Thread-safe: one writer and any number of readers, serialized on the store.
+ */
+@Slf4j
+public class TimeSeriesStore implements Closeable {
+    private static final int MAGIC = 0x43545331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int TIER_HEADER_OFFSET = 16;
+    private static final int TIER_HEADER_BYTES = 16;
+    private static final int RAW_RECORD_BYTES = 12;
+    private static final int ROLLUP_RECORD_BYTES = 24;
+
+    public static final long DEFAULT_RAW_INTERVAL_MILLIS = 2_000;
+    public static final int DEFAULT_RAW_CAPACITY = 7 * 24 * 3600 / 2;
+    public static final int DEFAULT_MINUTE_CAPACITY = 30 * 24 * 60;
+    public static final int DEFAULT_HOUR_CAPACITY = 365 * 24;
+
+    public enum Resolution {
+        RAW(0), MINUTE(60_000), HOUR(3_600_000);
+
+        private final long periodMillis;
+
+        Resolution(long periodMillis) {
+            this.periodMillis = periodMillis;
+        }
+    }
+
+    /**
+     * Receives the records of a query in time order. Raw readings have min, max and mean equal and a count of 1.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long epochMillis, double min, double max, double mean, int count);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long rawIntervalMillis;
+    private final Ring[] rings = new Ring[Resolution.values().length];
+    private final Rollup minute;
+    private final Rollup hour;
+    private long lastMillis = Long.MIN_VALUE;
+    private long lastRawMillis = Long.MIN_VALUE;
+    private long outOfOrder;
+    private boolean closed;
+
+    /**
+     * Opens or creates the store. A file written with a different layout is started over.
+     */
+    public TimeSeriesStore(Path file, long rawIntervalMillis, int rawCapacity, int minuteCapacity, int hourCapacity)
+            throws IOException {
+        this.file = file;
+        this.rawIntervalMillis = rawIntervalMillis;
+        int[] capacities = {rawCapacity, minuteCapacity, hourCapacity};
+        int[] recordBytes = {RAW_RECORD_BYTES, ROLLUP_RECORD_BYTES, ROLLUP_RECORD_BYTES};
+        long size = HEADER_BYTES;
+        for (int i = 0; i < rings.length; i++) {
+            if (capacities[i] < 1) {
+                throw new IllegalArgumentException("Every resolution needs room for a record");
+            }
+            rings[i] = new Ring(i, size, capacities[i], recordBytes[i]);
+            size += (long) capacities[i] * recordBytes[i];
+        }
+        this.minute = new Rollup(Resolution.MINUTE);
+        this.hour = new Rollup(Resolution.HOUR);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() != size;
+        if (fresh) {
+            channel.truncate(0);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (!fresh && !matchesLayout(capacities)) {
+            log.warn("{} has a different layout, starting a new history", file);
+            fresh = true;
+        }
+        if (fresh) {
+            writeHeader(capacities);
+        } else {
+            for (Ring ring : rings) {
+                ring.next = buffer.getLong(ring.headerOffset() + 8);
+            }
+            Ring raw = rings[Resolution.RAW.ordinal()];
+            if (raw.next > 0) {
+                lastRawMillis = raw.timeAt(raw.next - 1);
+                lastMillis = lastRawMillis;
+            }
+            minute.resume();
+            hour.resume();
+        }
+    }
+
+    /**
+     * Opens the store of a sensor under {@code ~/.cocktail-machine} with the default resolutions and retention.
+     */
+    public static TimeSeriesStore forSeries(String name) throws IOException {
+        String userHome = System.getProperty("user.home");
+        Path directory = userHome != null && !userHome.isEmpty()
+                ? Paths.get(userHome, ".cocktail-machine")
+                : Paths.get(".");
+        return new TimeSeriesStore(directory.resolve(name + ".ts"), DEFAULT_RAW_INTERVAL_MILLIS,
+                DEFAULT_RAW_CAPACITY, DEFAULT_MINUTE_CAPACITY, DEFAULT_HOUR_CAPACITY);
+    }
+
+    /**
+     * Records a reading. Readings older than the last one are ignored, as the rings must stay in time order.
+     * Does not allocate.
+     *
+     * @throws IllegalStateException if the store is closed
+     */
+    public synchronized void append(long epochMillis, double value) {
+        if (closed) {
+            throw new IllegalStateException(file + " is closed");
+        }
+        if (epochMillis < lastMillis) {
+            outOfOrder++;
+            return;
+        }
+        lastMillis = epochMillis;
+        if (lastRawMillis == Long.MIN_VALUE || epochMillis - lastRawMillis >= rawIntervalMillis) {
+            lastRawMillis = epochMillis;
+            Ring raw = rings[Resolution.RAW.ordinal()];
+            int offset = raw.claim();
+            buffer.putLong(offset, epochMillis);
+            buffer.putFloat(offset + 8, (float) value);
+            raw.commit();
+        }
+        minute.add(epochMillis, value);
+        hour.add(epochMillis, value);
+    }
+
+    /**
+     * Visits the records of the resolution whose timestamp lies in {@code [fromMillis, toMillis]}, oldest first.
+     * For rollups the timestamp is the start of the period, and the period in progress is included.
+     */
+    public synchronized void query(Resolution resolution, long fromMillis, long toMillis, Visitor visitor) {
+        Ring ring = rings[resolution.ordinal()];
+        for (long i = ring.firstAtOrAfter(fromMillis); i < ring.next; i++) {
+            long time = ring.timeAt(i);
+            if (time > toMillis) {
+                return;
+            }
+            int offset = ring.offsetOf(i);
+            if (resolution == Resolution.RAW) {
+                double value = buffer.getFloat(offset + 8);
+                visitor.visit(time, value, value, value, 1);
+            } else {
+                visitor.visit(time, buffer.getFloat(offset + 8), buffer.getFloat(offset + 12),
+                        buffer.getFloat(offset + 16), buffer.getInt(offset + 20));
+            }
+        }
+        Rollup current = resolution == Resolution.MINUTE ? minute : resolution == Resolution.HOUR ? hour : null;
+        if (current != null && current.count > 0 && current.start >= fromMillis && current.start <= toMillis) {
+            visitor.visit(current.start, current.min, current.max, current.sum / current.count, current.count);
+        }
+    }
+
+    /**
+     * Number of records currently held at the resolution.
+     */
+    public synchronized int size(Resolution resolution) {
+        Ring ring = rings[resolution.ordinal()];
+        return (int) Math.min(ring.next, ring.capacity);
+    }
+
+    /**
+     * Forces the written records out to the file.
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Writes the periods in progress to their rings and closes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        minute.commit();
+        hour.commit();
+        buffer.force();
+        channel.close();
+        if (outOfOrder > 0) {
+            log.warn("{}: {} readings out of time order were ignored", file, outOfOrder);
+        }
+    }
+
+    private boolean matchesLayout(int[] capacities) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != rawIntervalMillis) {
+            return false;
+        }
+        for (Ring ring : rings) {
+            if (buffer.getInt(ring.headerOffset()) != capacities[ring.index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts an empty history. Old records may stay in the file but are outside every ring.
+     */
+    private void writeHeader(int[] capacities) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, rawIntervalMillis);
+        for (Ring ring : rings) {
+            buffer.putInt(ring.headerOffset(), capacities[ring.index]);
+            buffer.putLong(ring.headerOffset() + 8, 0);
+        }
+        buffer.force();
+    }
+
+    /**
+     * One resolution's records. {@code next} counts every record ever written, the slot of record {@code i} is
+     * {@code i % capacity}, so the ring holds records {@code [next - capacity, next)}.
+     */
+    private final class Ring {
+        private final int index;
+        private final long dataOffset;
+        private final int capacity;
+        private final int recordBytes;
+        private long next;
+
+        Ring(int index, long dataOffset, int capacity, int recordBytes) {
+            this.index = index;
+            this.dataOffset = dataOffset;
+            this.capacity = capacity;
+            this.recordBytes = recordBytes;
+        }
+
+        int headerOffset() {
+            return TIER_HEADER_OFFSET + index * TIER_HEADER_BYTES;
+        }
+
+        int offsetOf(long record) {
+            return (int) (dataOffset + (record % capacity) * recordBytes);
+        }
+
+        long timeAt(long record) {
+            return buffer.getLong(offsetOf(record));
+        }
+
+        /**
+         * Offset of the slot for the next record; it becomes visible with {@link #commit()}.
+         */
+        int claim() {
+            return offsetOf(next);
+        }
+
+        void commit() {
+            next++;
+            buffer.putLong(headerOffset() + 8, next);
+        }
+
+        /**
+         * First record with a timestamp at or after the given time, by binary search, or {@code next} if none.
+         */
+        long firstAtOrAfter(long millis) {
+            long low = Math.max(0, next - capacity);
+            long high = next;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (timeAt(mid) < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Aggregate of the period in progress, written to its ring when a reading of a later period arrives or the store
+     * is closed.
+     */
+    private final class Rollup {
+        private final Ring ring;
+        private final long periodMillis;
+        private long start = Long.MIN_VALUE;
+        private double min;
+        private double max;
+        private double sum;
+        private int count;
+
+        Rollup(Resolution resolution) {
+            this.ring = rings[resolution.ordinal()];
+            this.periodMillis = resolution.periodMillis;
+        }
+
+        void add(long epochMillis, double value) {
+            long period = epochMillis - Math.floorMod(epochMillis, periodMillis);
+            if (period != start) {
+                commit();
+                start = period;
+                min = value;
+                max = value;
+                sum = 0;
+                count = 0;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+
+        /**
+         * Writes the period to the ring and empties it.
+         */
+        void commit() {
+            if (count == 0) {
+                return;
+            }
+            int offset = ring.claim();
+            buffer.putLong(offset, start);
+            buffer.putFloat(offset + 8, (float) min);
+            buffer.putFloat(offset + 12, (float) max);
+            buffer.putFloat(offset + 16, (float) (sum / count));
+            buffer.putInt(offset + 20, count);
+            ring.commit();
+            count = 0;
+        }
+
+        /**
+         * Continues the ring's last record as the period in progress, so readings of the same period after a reopen
+         * are added to it instead of starting a second record with the same start. Only the in-memory position moves
+         * back; the file keeps the record until the period is committed over it.
+         */
+        void resume() {
+            if (ring.next == 0) {
+                return;
+            }
+            ring.next--;
+            int offset = ring.claim();
+            start = buffer.getLong(offset);
+            min = buffer.getFloat(offset + 8);
+            max = buffer.getFloat(offset + 12);
+            count = buffer.getInt(offset + 20);
+            sum = (double) buffer.getFloat(offset + 16) * count;
+        }
+    }
+}
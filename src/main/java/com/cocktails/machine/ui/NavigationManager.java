@@ -2,7 +2,8 @@ package com.cocktails.machine.ui;
 
 import com.cocktails.machine.model.Cocktail;
 import com.cocktails.machine.ui.controller.CocktailDetailScreenController;
-import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.ui.controller.HomeScreenController;
+import com.cocktails.machine.util.ResourceUtils.ViewResult;
 import javafx.animation.TranslateTransition;
 import javafx.scene.Parent;
 import javafx.scene.layout.StackPane;
@@ -10,47 +11,69 @@ import javafx.util.Duration;
 
 public class NavigationManager {
 
-    private static NavigationManager instance;
-
     public static final int SCREEN_DEFAULT_WIDTH = 1280;
     public static final double TRANSITION_DURATION = 0.3;
     public static final String HOME_SCREEN_FXML = "home-screen.fxml";
     public static final String COCKTAIL_DETAIL_SCREEN_FXML = "cocktail-detail-screen.fxml";
 
+    private final ScreenCache screenCache = new ScreenCache();
     private StackPane container;
+    private ViewResult<?> current;
     private Parent currentScreen;
+    private Parent leavingScreen;
+    private TranslateTransition currentOut;
+    private TranslateTransition newIn;
 
     private NavigationManager() {
     }
 
     public static NavigationManager getInstance() {
-        if (instance == null) {
-            instance = new NavigationManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final NavigationManager INSTANCE = new NavigationManager();
     }
 
     public void setContainer(StackPane container) {
         this.container = container;
     }
 
+    /**
+     * Limits how many screens are kept alive (default {@value ScreenCache#DEFAULT_MAX_SCREENS},
+     * or the {@value ScreenCache#MAX_SCREENS_PROPERTY} system property). Evicted screens go back to the view pool.
+     */
+    public void setMaxCachedScreens(int maxScreens) {
+        screenCache.setMaxScreens(maxScreens, current);
+    }
+
     public void navigateToHome() {
-        Parent homeScreen = ResourceUtils.loadView(HOME_SCREEN_FXML);
-        navigateToScreen(homeScreen, Direction.RIGHT);
+        ViewResult<HomeScreenController> home = screenCache.getOrLoad(HOME_SCREEN_FXML, current);
+        // A home screen taken from the pool was detached from the repository by its reset
+        home.controller().resume();
+        navigateToScreen(home, Direction.RIGHT);
     }
 
     public void navigateToCocktailDetail(Cocktail cocktail) {
-        ResourceUtils.ViewResult<CocktailDetailScreenController> result = ResourceUtils.loadViewWithController(COCKTAIL_DETAIL_SCREEN_FXML);
-        result.controller().setCocktail(cocktail);
-        navigateToScreen(result.parent(), Direction.LEFT);
+        ViewResult<CocktailDetailScreenController> detail = screenCache.getOrLoad(COCKTAIL_DETAIL_SCREEN_FXML, current);
+        // The cached detail screen is rebound, not rebuilt
+        detail.controller().reset();
+        detail.controller().setCocktail(cocktail);
+        navigateToScreen(detail, Direction.LEFT);
     }
 
-    private void navigateToScreen(Parent screen, Direction direction) {
+    private void navigateToScreen(ViewResult<?> view, Direction direction) {
         if (container == null) {
             throw new IllegalStateException("NavigationManager container not set");
         }
+        if (view == current) {
+            return;
+        }
+        finishTransition();
 
+        Parent screen = view.parent();
         Parent previousScreen = currentScreen;
+        current = view;
         currentScreen = screen;
 
         if (previousScreen == null) {
@@ -70,8 +93,9 @@ public class NavigationManager {
         container.getChildren().add(screen);
 
         // Animate transition
-        TranslateTransition currentOut = new TranslateTransition(Duration.seconds(TRANSITION_DURATION), previousScreen);
-        TranslateTransition newIn = new TranslateTransition(Duration.seconds(TRANSITION_DURATION), screen);
+        leavingScreen = previousScreen;
+        currentOut = new TranslateTransition(Duration.seconds(TRANSITION_DURATION), previousScreen);
+        newIn = new TranslateTransition(Duration.seconds(TRANSITION_DURATION), screen);
 
         if (direction == Direction.LEFT) {
             currentOut.setToX(-screenWidth);
@@ -81,15 +105,31 @@ public class NavigationManager {
             newIn.setToX(0);
         }
 
-        newIn.setOnFinished(e -> {
-            container.getChildren().remove(previousScreen);
-            previousScreen.setTranslateX(0);
-        });
+        newIn.setOnFinished(e -> finishTransition());
 
         currentOut.play();
         newIn.play();
     }
 
+    /**
+     * Completes a running transition at once, so a cached screen that is still sliding out can be shown again.
+     */
+    private void finishTransition() {
+        if (currentOut == null) {
+            return;
+        }
+        currentOut.stop();
+        newIn.stop();
+        currentScreen.setTranslateX(0);
+        if (leavingScreen != currentScreen) {
+            container.getChildren().remove(leavingScreen);
+        }
+        leavingScreen.setTranslateX(0);
+        leavingScreen = null;
+        currentOut = null;
+        newIn = null;
+    }
+
     public enum Direction {
         LEFT, RIGHT
     }
@@ -0,0 +1,65 @@
+package com.cocktails.machine.ui;
+
+import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.util.ResourceUtils.ViewResult;
+import com.cocktails.machine.util.ViewFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps loaded screens alive between navigations, keyed by FXML name.
+ * Bounded by a number of screens; the least recently shown screen is evicted first and handed back to the
+ * {@link ViewFactory} pool, never the one currently on display nor the one about to be.
+ */
+@Slf4j
+class ScreenCache {
+    public static final String MAX_SCREENS_PROPERTY = "cocktail-machine.screenCacheSize";
+    public static final int DEFAULT_MAX_SCREENS = 2;
+
+    private final Map<String, ViewResult<?>> screens = new LinkedHashMap<>(8, 0.75f, true);
+    private int maxScreens = Integer.getInteger(MAX_SCREENS_PROPERTY, DEFAULT_MAX_SCREENS);
+
+    /**
+     * Returns the cached screen or loads it, evicting older screens if the cache is full.
+     *
+     * @param shown the screen currently on display, which is never evicted
+     */
+    @SuppressWarnings("unchecked")
+    <T> ViewResult<T> getOrLoad(String viewName, ViewResult<?> shown) {
+        var screen = screens.get(viewName);
+        if (screen == null) {
+            screen = ResourceUtils.loadViewWithController(viewName);
+            screens.put(viewName, screen);
+            evict(shown, screen);
+        }
+        return (ViewResult<T>) screen;
+    }
+
+    int getMaxScreens() {
+        return maxScreens;
+    }
+
+    void setMaxScreens(int maxScreens, ViewResult<?> shown) {
+        this.maxScreens = Math.max(1, maxScreens);
+        evict(shown, null);
+    }
+
+    /**
+     * @param loaded the screen just loaded for display, kept even when it alone exceeds the bound
+     */
+    private void evict(ViewResult<?> shown, ViewResult<?> loaded) {
+        Iterator<Map.Entry<String, ViewResult<?>>> it = screens.entrySet().iterator();
+        while (screens.size() > maxScreens && it.hasNext()) {
+            var eldest = it.next();
+            if (eldest.getValue() == shown || eldest.getValue() == loaded) {
+                continue;
+            }
+            it.remove();
+            log.debug("Evicting screen {} from cache", eldest.getKey());
+            ViewFactory.getInstance().release(eldest.getKey(), eldest.getValue());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.cocktails.machine.ui.component;
+
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.ui.controller.CocktailCardController;
+import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.util.ResourceUtils.ViewResult;
+import javafx.animation.FadeTransition;
+import javafx.animation.TranslateTransition;
+import javafx.beans.InvalidationListener;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Virtualized horizontal strip of cocktail cards.
+ * Only the cards inside the viewport of the enclosing {@link ScrollPane}, plus {@link #BUFFER_CARDS} on each side,
+ * exist as nodes. Cards that scroll out are hidden and recycled for the cards scrolling in by rebinding their
+ * {@link CocktailCardController} to another {@link Cocktail}, so a scroll never parses FXML once the pool is warm.
+ * <p>
+ * Single-entry changes ({@link #updateItem}, {@link #insertItem}, {@link #removeItem}) only touch the affected card
+ * and slide the visible neighbours, instead of rebinding the whole viewport.
+ */
+public class CocktailCardStrip extends Pane {
+
+    public static final double CARD_WIDTH = 320;
+    public static final double CARD_HEIGHT = 480;
+    public static final double CARD_SPACING = 24;
+    public static final double PADDING = 32;
+    public static final int BUFFER_CARDS = 2;
+    public static final String COCKTAIL_CARD_FXML = "cocktail-card.fxml";
+    public static final Duration CHANGE_ANIMATION = Duration.millis(200);
+    private static final double STRIDE = CARD_WIDTH + CARD_SPACING;
+
+    private List<Cocktail> items = List.of();
+    private final Map<Integer, ViewResult<CocktailCardController>> boundCards = new HashMap<>();
+    private final Deque<ViewResult<CocktailCardController>> freeCards = new ArrayDeque<>();
+    private final InvalidationListener viewportListener = observable -> requestLayout();
+    private BiConsumer<CocktailCardController, Cocktail> cardBinder = CocktailCardController::setCocktail;
+    private ScrollPane scrollPane;
+
+    /**
+     * Uses the viewport of the given scroll pane to decide which cards are visible.
+     * Without it every card is created.
+     */
+    public void attachTo(ScrollPane scrollPane) {
+        if (this.scrollPane != null) {
+            this.scrollPane.hvalueProperty().removeListener(viewportListener);
+            this.scrollPane.viewportBoundsProperty().removeListener(viewportListener);
+        }
+        this.scrollPane = scrollPane;
+        if (scrollPane != null) {
+            scrollPane.hvalueProperty().addListener(viewportListener);
+            scrollPane.viewportBoundsProperty().addListener(viewportListener);
+        }
+        requestLayout();
+    }
+
+    /**
+     * Sets how a card controller is bound to a cocktail, e.g. data plus select/favorite callbacks.
+     * Called every time a card is recycled, so it must fully overwrite the previous binding.
+     */
+    public void setCardBinder(BiConsumer<CocktailCardController, Cocktail> cardBinder) {
+        this.cardBinder = cardBinder;
+    }
+
+    public List<Cocktail> getItems() {
+        return items;
+    }
+
+    /**
+     * Replaces the displayed cocktails. Visible cards are recycled, not rebuilt.
+     */
+    public void setItems(List<Cocktail> items) {
+        this.items = items == null ? List.of() : items;
+        releaseAll();
+        requestLayout();
+    }
+
+    /**
+     * Rebinds the card at the given index, if it is currently bound, e.g. after its favorite flag changed.
+     */
+    public void updateItem(int index) {
+        var card = boundCards.get(index);
+        if (card != null) {
+            cardBinder.accept(card.controller(), items.get(index));
+        }
+    }
+
+    /**
+     * Switches to {@code newItems}, which equals the current items with one entry inserted at {@code index}.
+     */
+    public void insertItem(int index, List<Cocktail> newItems) {
+        this.items = newItems;
+        shiftBoundCards(index, 1);
+        requestLayout();
+    }
+
+    /**
+     * Switches to {@code newItems}, which equals the current items with the entry at {@code index} removed.
+     * The removed card fades out while its right-hand neighbours slide into place.
+     */
+    public void removeItem(int index, List<Cocktail> newItems) {
+        this.items = newItems;
+        var removed = boundCards.remove(index);
+        shiftBoundCards(index + 1, -1);
+        if (removed != null) {
+            var fade = new FadeTransition(CHANGE_ANIMATION, removed.parent());
+            fade.setToValue(0);
+            fade.setOnFinished(e -> {
+                removed.parent().setOpacity(1);
+                release(removed);
+            });
+            fade.play();
+        }
+        requestLayout();
+    }
+
+    /**
+     * Moves the cards bound at {@code from} and beyond by {@code delta} positions, animating the move.
+     */
+    private void shiftBoundCards(int from, int delta) {
+        var shifted = new HashMap<Integer, ViewResult<CocktailCardController>>();
+        for (Iterator<Map.Entry<Integer, ViewResult<CocktailCardController>>> it = boundCards.entrySet().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            if (entry.getKey() >= from) {
+                shifted.put(entry.getKey() + delta, entry.getValue());
+                it.remove();
+            }
+        }
+        shifted.forEach((index, card) -> {
+            boundCards.put(index, card);
+            // Start from the old position; layoutChildren() moves the card to its new slot
+            card.parent().setTranslateX(-delta * STRIDE);
+            var slide = new TranslateTransition(CHANGE_ANIMATION, card.parent());
+            slide.setToX(0);
+            slide.play();
+        });
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        int count = items.size();
+        return PADDING * 2 + count * CARD_WIDTH + Math.max(0, count - 1) * CARD_SPACING;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return PADDING * 2 + CARD_HEIGHT;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (items.isEmpty()) {
+            releaseAll();
+            return;
+        }
+
+        double viewportWidth = getViewportWidth();
+        double offset = getScrollOffset(viewportWidth);
+        int first = Math.max(0, (int) Math.floor((offset - PADDING) / STRIDE) - BUFFER_CARDS);
+        int last = Math.min(items.size() - 1, (int) Math.ceil((offset + viewportWidth - PADDING) / STRIDE) + BUFFER_CARDS);
+
+        // Recycle cards that left the visible range
+        for (Iterator<Map.Entry<Integer, ViewResult<CocktailCardController>>> it = boundCards.entrySet().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            if (entry.getKey() < first || entry.getKey() > last) {
+                release(entry.getValue());
+                it.remove();
+            }
+        }
+
+        double y = Math.max(PADDING, (getHeight() - CARD_HEIGHT) / 2);
+        for (int i = first; i <= last; i++) {
+            var card = boundCards.get(i);
+            if (card == null) {
+                card = acquire();
+                cardBinder.accept(card.controller(), items.get(i));
+                boundCards.put(i, card);
+            }
+            card.parent().resizeRelocate(PADDING + i * STRIDE, y, CARD_WIDTH, CARD_HEIGHT);
+        }
+    }
+
+    private double getViewportWidth() {
+        if (scrollPane == null || scrollPane.getViewportBounds().getWidth() <= 0) {
+            return computePrefWidth(-1);
+        }
+        return scrollPane.getViewportBounds().getWidth();
+    }
+
+    private double getScrollOffset(double viewportWidth) {
+        if (scrollPane == null) {
+            return 0;
+        }
+        double range = scrollPane.getHmax() - scrollPane.getHmin();
+        double scrollable = Math.max(0, getWidth() - viewportWidth);
+        return range <= 0 ? 0 : (scrollPane.getHvalue() - scrollPane.getHmin()) / range * scrollable;
+    }
+
+    private ViewResult<CocktailCardController> acquire() {
+        var card = freeCards.poll();
+        if (card == null) {
+            card = ResourceUtils.loadViewWithController(COCKTAIL_CARD_FXML);
+            card.parent().setManaged(false);
+            getChildren().add(card.parent());
+        }
+        card.parent().setVisible(true);
+        return card;
+    }
+
+    private void release(ViewResult<CocktailCardController> card) {
+        // Hidden cards stay in the scene graph, re-adding nodes would cost CSS and layout passes
+        card.parent().setVisible(false);
+        freeCards.push(card);
+    }
+
+    private void releaseAll() {
+        boundCards.values().forEach(this::release);
+        boundCards.clear();
+    }
+}
@@ -0,0 +1,96 @@
+package com.cocktails.machine.ui.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.shape.Arc;
+import javafx.scene.text.Text;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders a 0-100% progress value into an {@link Arc} and a percentage label.
+ * <p>
+ * Producers call {@link #submit(double)} from any thread at any rate; only the latest value is kept, and it is
+ * applied at most once per pulse by an {@link AnimationTimer} that runs only between {@link #start()} and
+ * {@link #finish()}. Rendering sets the arc length and picks the label from a precomputed table, so a pulse does
+ * not allocate.
+ */
+public class ProgressArcRenderer {
+    private static final String[] LABELS = new String[101];
+    private static final long NO_UPDATE = Double.doubleToRawLongBits(Double.NaN);
+
+    static {
+        for (int i = 0; i < LABELS.length; i++) {
+            LABELS[i] = i + "%";
+        }
+    }
+
+    private final Arc arc;
+    private final Text label;
+    private final AtomicLong pending = new AtomicLong(NO_UPDATE);
+    private int shownLabel = -1;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyPending();
+        }
+    };
+
+    public ProgressArcRenderer(Arc arc, Text label) {
+        this.arc = arc;
+        this.label = label;
+        render(0);
+    }
+
+    /**
+     * Publishes a new value. Thread-safe; values submitted within the same pulse replace each other.
+     */
+    public void submit(double percentage) {
+        pending.set(Double.doubleToRawLongBits(percentage));
+    }
+
+    /**
+     * Starts applying submitted values. Must be called on the FX thread.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Applies the last submitted value and stops the timer. Must be called on the FX thread.
+     */
+    public void finish() {
+        timer.stop();
+        applyPending();
+    }
+
+    /**
+     * Stops the timer, drops pending values and shows 0%. Must be called on the FX thread.
+     */
+    public void reset() {
+        timer.stop();
+        pending.set(NO_UPDATE);
+        render(0);
+    }
+
+    /**
+     * Applies the latest submitted value, the work of one pulse. Package-private for the benchmark.
+     */
+    void applyPending() {
+        long bits = pending.getAndSet(NO_UPDATE);
+        if (bits != NO_UPDATE) {
+            render(Double.longBitsToDouble(bits));
+        }
+    }
+
+    private void render(double percentage) {
+        double clamped = Math.max(0, Math.min(100, percentage));
+        // Negative length draws clockwise from the start angle at 12 o'clock
+        arc.setLength(-3.6 * clamped);
+        int labelIndex = (int) Math.round(clamped);
+        if (labelIndex != shownLabel) {
+            shownLabel = labelIndex;
+            label.setText(LABELS[labelIndex]);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.cocktails.machine.ui.controller;
 import com.cocktails.machine.model.Cocktail;
 import com.cocktails.machine.repository.CocktailRepository;
 import com.cocktails.machine.service.DispenseService;
+import com.cocktails.machine.service.dispense.OrderTicket;
 import com.cocktails.machine.service.impl.DispenseServiceImpl;
 import com.cocktails.machine.ui.NavigationManager;
+import com.cocktails.machine.ui.component.ProgressArcRenderer;
 import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.util.Resettable;
 import com.cocktails.machine.util.UiDisplayUtils;
 import io.github.palexdev.mfxresources.fonts.MFXFontIcon;
 import javafx.application.Platform;
@@ -15,22 +18,22 @@ import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.shape.Circle;
+import javafx.scene.shape.Arc;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.URL;
 import java.util.ResourceBundle;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
-public class CocktailDetailScreenController implements Initializable {
+public class CocktailDetailScreenController implements Initializable, Resettable {
 
     public static final String FAVORITE_ICON_FILLED = "favorite-icon-filled";
     public static final String FAVORITE_ICON_OUTLINE = "favorite-icon-outline";
     public static final String FAS_STAR = "fas-star";
     public static final String INGREDIENT_TEXT = "ingredient-text";
+    private static final int LOG_MILESTONE_PERCENT = 25;
 
     @FXML
     private MFXFontIcon favoriteIcon;
@@ -43,7 +46,7 @@ public class CocktailDetailScreenController implements Initializable {
     @FXML
     private StackPane progressContainer;
     @FXML
-    private Circle progressCircle;
+    private Arc progressArc;
     @FXML
     private Text progressLabel;
     @FXML
@@ -52,23 +55,69 @@ public class CocktailDetailScreenController implements Initializable {
     private Text progressText;
 
     private Cocktail cocktail;
+    private ProgressArcRenderer progressRenderer;
+    // Last logged multiple of LOG_MILESTONE_PERCENT, FX thread only
+    private int loggedMilestone = -1;
+    private boolean queued;
+    // Last order started from this screen, kept across reset so it can still be cancelled or shown again;
+    // null once finished or cancelled
+    private Order order;
+    // Order whose progress the screen shows, null after reset. Callbacks of any other order are ignored.
+    private Order shown;
 
-    private final AtomicInteger logCount = new AtomicInteger(0);
     private final DispenseService drinkService = DispenseServiceImpl.getInstance();
     private final CocktailRepository cocktailRepository = CocktailRepository.getInstance();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        progressRenderer = new ProgressArcRenderer(progressArc, progressLabel);
     }
 
 
+    /**
+     * Puts the screen back into its initial state, so a pooled instance can be bound to another cocktail.
+     * An order still pouring keeps going but no longer drives the screen.
+     */
+    @Override
+    public void reset() {
+        cocktail = null;
+        loggedMilestone = -1;
+        queued = false;
+        shown = null;
+        progressRenderer.reset();
+        ingredientsContainer.getChildren().clear();
+        UiDisplayUtils.hide(progressContainer);
+        UiDisplayUtils.hide(progressText);
+        UiDisplayUtils.display(playButtonContainer);
+        UiDisplayUtils.display(ingredientsContainer);
+    }
+
     public void setCocktail(Cocktail cocktail) {
         this.cocktail = cocktail;
         if (cocktail != null) {
             updateUI();
+            if (order != null && order.cocktail == cocktail && isLive(order)) {
+                showOrder(order);
+            }
         }
     }
 
+    private boolean isLive(Order candidate) {
+        return drinkService.getOrders().stream().anyMatch(status -> status.id() == candidate.ticket.id());
+    }
+
+    /**
+     * Shows the progress of an order still pouring for this cocktail, from its next update on.
+     */
+    private void showOrder(Order current) {
+        shown = current;
+        UiDisplayUtils.hide(playButtonContainer);
+        UiDisplayUtils.display(progressText);
+        UiDisplayUtils.display(progressContainer);
+        progressRenderer.start();
+        progressText.setText("Drink is being prepared...");
+    }
+
     private void updateUI() {
         if (cocktail == null) {
             return;
@@ -76,10 +125,7 @@ public class CocktailDetailScreenController implements Initializable {
 
         cocktailName.setText(cocktail.getName());
 
-        var image = ResourceUtils.loadCocktailImage(cocktail.getImage());
-        if (image != null) {
-            cocktailImage.setImage(image);
-        }
+        ResourceUtils.loadCocktailImage(cocktailImage, cocktail.getImage());
 
         updateIngredientsText();
         updateFavoriteIcon();
@@ -112,7 +158,7 @@ public class CocktailDetailScreenController implements Initializable {
     private void toggleFavorite() {
         if (cocktail != null) {
             cocktailRepository.toggleFavorite(cocktail);
-            log.info("Toggled favorite for {}: {}", cocktail.getName(), cocktail.isFavorite());
+            log.info("Toggled favorite for {}: {}", cocktail.getName(), cocktailRepository.isFavorite(cocktail));
             updateFavoriteIcon();
         }
     }
@@ -122,10 +168,11 @@ public class CocktailDetailScreenController implements Initializable {
             return;
         }
 
-        log.info("Updating favorite icon for {}: isFavorite: {}", cocktail.getName(), cocktail.isFavorite());
+        boolean isFavorite = cocktailRepository.isFavorite(cocktail);
+        log.info("Updating favorite icon for {}: isFavorite: {}", cocktail.getName(), isFavorite);
         favoriteIcon.getStyleClass().removeAll(FAVORITE_ICON_FILLED, FAVORITE_ICON_OUTLINE);
         favoriteIcon.setDescription(FAS_STAR);
-        var style = cocktail.isFavorite() ? FAVORITE_ICON_FILLED : FAVORITE_ICON_OUTLINE;
+        var style = isFavorite ? FAVORITE_ICON_FILLED : FAVORITE_ICON_OUTLINE;
         favoriteIcon.getStyleClass().add(style);
     }
 
@@ -136,8 +183,8 @@ public class CocktailDetailScreenController implements Initializable {
 
     @FXML
     private void onReload() {
-        stopProgress();
-        UiDisplayUtils.hide(null);
+        cancelDispense();
+        UiDisplayUtils.hide(progressContainer);
         UiDisplayUtils.hide(progressText);
 
         UiDisplayUtils.display(playButtonContainer);
@@ -147,7 +194,6 @@ public class CocktailDetailScreenController implements Initializable {
 
     @FXML
     private void onExit() {
-        cocktailRepository.save();
         Platform.exit();
     }
 
@@ -166,26 +212,80 @@ public class CocktailDetailScreenController implements Initializable {
             progressText.setText("Not ready to dispense");
             return;
         }
-        drinkService.dispense(cocktail, this::updateProgress, this::stopProgress);
-        progressText.setText("Drink is being prepared...");
+        loggedMilestone = -1;
+        progressRenderer.reset();
+        progressRenderer.start();
+        int ahead = drinkService.getOrders().size();
+        var started = new Order(cocktail);
+        // Callbacks run on the FX thread after this method returns, so the ticket is set before the first one
+        started.ticket = drinkService.dispense(cocktail,
+                percentage -> {
+                    if (shown == started) {
+                        updateProgress(percentage);
+                    }
+                },
+                () -> stopProgress(started));
+        order = started;
+        shown = started;
+        queued = ahead > 0;
+        progressText.setText(queued ? "Queued, %d ahead...".formatted(ahead) : "Drink is being prepared...");
     }
 
-    private void stopProgress() {
-        logCount.set(0);
+    private void stopProgress(Order finished) {
+        if (order == finished) {
+            order = null;
+        }
+        if (shown != finished) {
+            return;
+        }
+        shown = null;
+        progressRenderer.finish();
         progressText.setText("Drink is ready!");
     }
 
+    /**
+     * Stops the pumps of the order shown, if any, and clears the progress.
+     */
+    private void cancelDispense() {
+        var current = shown;
+        if (current != null) {
+            shown = null;
+            if (order == current) {
+                order = null;
+            }
+            drinkService.cancel(current.ticket).thenAccept(reports -> reports.forEach(report -> log.info("Poured before cancel: {}", report)));
+        }
+        progressRenderer.reset();
+    }
+
+    /**
+     * Progress callback of the dispense service, may be called at any rate.
+     * Values are coalesced to one render per pulse; logging only happens at milestones.
+     */
     private void updateProgress(double percentage) {
-        progressLabel.setText(String.format("%.0f%%", percentage));
-        double circumference = 2 * Math.PI * 100;
-        double progress = percentage / 100.0;
+        progressRenderer.submit(percentage);
+        if (queued && percentage > 0) {
+            queued = false;
+            progressText.setText("Drink is being prepared...");
+        }
+
+        int milestone = (int) (percentage / LOG_MILESTONE_PERCENT);
+        var current = cocktail;
+        if (milestone > loggedMilestone && current != null) {
+            loggedMilestone = milestone;
+            log.info("Dispense progress for {}: {}%", current.getName(), milestone * LOG_MILESTONE_PERCENT);
+        }
+    }
 
-        progressCircle.getStrokeDashArray().setAll(circumference * progress, circumference);
-        progressCircle.setRotate(-90);
+    /**
+     * An order started from this screen. Only touched on the FX thread.
+     */
+    private static final class Order {
+        private final Cocktail cocktail;
+        private OrderTicket ticket;
 
-        logCount.incrementAndGet();
-        if (logCount.get() % 10 == 0 || percentage == 100.0f) {
-            log.info("Updated progress to: %.1f%%".formatted(percentage));
+        Order(Cocktail cocktail) {
+            this.cocktail = cocktail;
         }
     }
 }
@@ -2,31 +2,83 @@ package com.cocktails.machine.ui.controller;
 
 import com.cocktails.machine.model.Cocktail;
 import com.cocktails.machine.repository.CocktailRepository;
+import com.cocktails.machine.repository.FavoriteChange;
+import com.cocktails.machine.service.impl.InventoryServiceImpl;
 import com.cocktails.machine.ui.NavigationManager;
-import com.cocktails.machine.util.ResourceUtils;
+import com.cocktails.machine.ui.component.CocktailCardStrip;
+import com.cocktails.machine.util.Resettable;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.scene.layout.HBox;
+import javafx.scene.control.ScrollPane;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.URL;
-import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 @Slf4j
-public class HomeScreenController implements Initializable {
+public class HomeScreenController implements Initializable, Resettable {
 
     @FXML
-    private HBox cocktailContainer;
+    private ScrollPane cocktailScrollPane;
+    @FXML
+    private CocktailCardStrip cocktailStrip;
 
     private CocktailFilter cocktailFilter = CocktailFilter.ALL;
-    private static final String COCKTAIL_CARD_FXML = "cocktail-card.fxml";
     private static final CocktailRepository cocktailRepository = CocktailRepository.getInstance();
 
+    // Whether the listeners are registered, false while the screen sits in the view pool
+    private boolean listening;
+    // The home screen stays alive between navigations, so changes made on the detail screen arrive here too
+    private final Consumer<FavoriteChange> favoriteListener = change -> {
+        if (Platform.isFxApplicationThread()) {
+            onFavoriteChanged(change);
+        } else {
+            Platform.runLater(() -> onFavoriteChanged(change));
+        }
+    };
+    // Pours and refills change which cocktails can be made
+    private final Runnable readinessListener = () -> Platform.runLater(() -> {
+        if (listening && cocktailFilter == CocktailFilter.MAKEABLE) {
+            refreshCurrentFilter();
+        }
+    });
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        setCocktailFilter(CocktailFilter.ALL);
+        cocktailStrip.attachTo(cocktailScrollPane);
+        cocktailStrip.setCardBinder(this::bindCard);
+        cocktailFilter = CocktailFilter.ALL;
+        resume();
+    }
+
+    /**
+     * Registers the change listeners and shows the current catalog. Called when the screen is built and again when
+     * a pooled instance is shown, which catches up with the changes made while it was pooled; no-op otherwise.
+     */
+    public void resume() {
+        if (listening) {
+            return;
+        }
+        listening = true;
+        cocktailRepository.addChangeListener(favoriteListener);
+        InventoryServiceImpl.getInstance().addReadinessListener(readinessListener);
+        refreshCurrentFilter();
+    }
+
+    /**
+     * Unregisters the change listeners when the screen is handed back to the view pool, so a released screen is
+     * neither kept reachable nor updated by the repository and the inventory.
+     */
+    @Override
+    public void reset() {
+        if (!listening) {
+            return;
+        }
+        listening = false;
+        cocktailRepository.removeChangeListener(favoriteListener);
+        InventoryServiceImpl.getInstance().removeReadinessListener(readinessListener);
     }
 
     private void setCocktailFilter(CocktailFilter filterType) {
@@ -35,25 +87,55 @@ public class HomeScreenController implements Initializable {
     }
 
     private void refreshCurrentFilter() {
-        cocktailContainer.getChildren().clear();
-
-        List<Cocktail> filteredCocktails = cocktailRepository.getCocktails(cocktailFilter);
-
-        filteredCocktails.forEach(cocktail -> {
-            // Load card FXML directly with controller
-            var result = ResourceUtils.<CocktailCardController>loadViewWithController(COCKTAIL_CARD_FXML);
-            CocktailCardController controller = result.controller();
-
-            // Set up cocktail data
-            controller.setCocktail(cocktail);
+        // Only the visible cards are (re)bound, see CocktailCardStrip
+        cocktailStrip.setItems(cocktailRepository.getCocktails(cocktailFilter));
+    }
 
-            // Set up callbacks
-            controller.setOnSelect(() -> onCocktailSelect(cocktail));
-            controller.setOnFavoriteChanged(this::refreshCurrentFilter);
+    /**
+     * Applies a single favorite change to the strip: one card updated, inserted or removed.
+     */
+    private void onFavoriteChanged(FavoriteChange change) {
+        if (!listening) {
+            // Delivered after the screen went back to the pool
+            return;
+        }
+        if (cocktailFilter == CocktailFilter.ALL) {
+            cocktailStrip.updateItem(change.catalogPosition());
+            return;
+        }
+        if (cocktailFilter == CocktailFilter.MAKEABLE) {
+            // The makeable list does not change with a favorite, only the cocktail's card is rebound
+            int index = change.makeablePosition();
+            var items = cocktailStrip.getItems();
+            if (index >= 0 && index < items.size() && items.get(index) == change.cocktail()) {
+                cocktailStrip.updateItem(index);
+            } else if (index >= 0) {
+                // The makeable list changed since the strip was bound and the refresh is still pending
+                refreshCurrentFilter();
+            }
+            return;
+        }
+
+        var favorites = cocktailRepository.getCocktails(CocktailFilter.FAVOURITES);
+        int expectedSize = cocktailStrip.getItems().size() + (change.favorite() ? 1 : -1);
+        if (favorites.size() != expectedSize) {
+            // Several changes were published before this one was delivered, fall back to a full rebind
+            refreshCurrentFilter();
+        } else if (change.favorite()) {
+            cocktailStrip.insertItem(change.favoritesPosition(), favorites);
+        } else {
+            cocktailStrip.removeItem(change.favoritesPosition(), favorites);
+        }
+    }
 
-            // Add the card view to container
-            cocktailContainer.getChildren().add(result.parent());
-        });
+    /**
+     * Binds a recycled card to a cocktail, overwriting data and callbacks of its previous cocktail.
+     */
+    private void bindCard(CocktailCardController controller, Cocktail cocktail) {
+        controller.setCocktail(cocktail);
+        controller.setOnSelect(() -> onCocktailSelect(cocktail));
+        // The strip is updated from the repository's change event, see onFavoriteChanged
+        controller.setOnFavoriteChanged(() -> {});
     }
 
     @FXML
@@ -61,6 +143,11 @@ public class HomeScreenController implements Initializable {
         setCocktailFilter(CocktailFilter.FAVOURITES);
     }
 
+    @FXML
+    private void onMakeable() {
+        setCocktailFilter(CocktailFilter.MAKEABLE);
+    }
+
     @FXML
     private void onAll() {
         setCocktailFilter(CocktailFilter.ALL);
@@ -72,7 +159,6 @@ public class HomeScreenController implements Initializable {
 
     @FXML
     private void onExit() {
-        cocktailRepository.save();
         Platform.exit();
     }
 
@@ -82,7 +168,7 @@ public class HomeScreenController implements Initializable {
     }
 
     public enum CocktailFilter {
-        ALL, FAVOURITES
+        ALL, FAVOURITES, MAKEABLE
     }
 }
 
@@ -1,5 +1,6 @@
 package com.cocktails.machine.ui.controller;
 
+import com.cocktails.machine.ui.service.FrameStatsMonitor;
 import com.cocktails.machine.ui.service.StatusBarService;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -13,6 +14,8 @@ public class StatusBarController implements Initializable {
     private Label temperatureLabel;
     @FXML
     private Label wifiLabel;
+    @FXML
+    private Label frameStatsLabel;
 
     private final StatusBarService statusBarService = StatusBarService.getInstance();
 
@@ -22,6 +25,14 @@ public class StatusBarController implements Initializable {
         temperatureLabel.textProperty().bind(statusBarService.temperatureTextProperty());
         wifiLabel.textProperty().bind(statusBarService.wifiTextProperty());
         statusBarService.updateStatus();
+
+        // Frame stats overlay, only shown when instrumentation is enabled
+        var frameStats = FrameStatsMonitor.getInstance();
+        if (frameStats.isEnabled()) {
+            frameStatsLabel.textProperty().bind(frameStats.overlayTextProperty());
+            frameStatsLabel.setVisible(true);
+            frameStatsLabel.setManaged(true);
+        }
     }
 }
 
@@ -0,0 +1,74 @@
+package com.cocktails.machine.ui.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of frame times with {@link #BUCKET_NANOS} resolution.
+ * Recording only increments array slots, so it can run on every pulse without allocating.
+ * Not thread-safe; owned by the FX thread.
+ */
+class FrameHistogram {
+    static final long BUCKET_NANOS = 250_000;
+    // 0.25 ms buckets up to 250 ms, longer frames land in the last bucket
+    private static final int BUCKETS = 1000;
+
+    private final long[] counts = new long[BUCKETS + 1];
+    private long total;
+    private long sumNanos;
+    private long maxNanos;
+    private long dropped;
+
+    /**
+     * @param nanos         frame time
+     * @param dropped       frames missed in this interval, 0 if it was on time
+     */
+    void record(long nanos, long dropped) {
+        counts[(int) Math.min(BUCKETS, nanos / BUCKET_NANOS)]++;
+        total++;
+        sumNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        this.dropped += dropped;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+        dropped = 0;
+    }
+
+    long count() {
+        return total;
+    }
+
+    long dropped() {
+        return dropped;
+    }
+
+    double meanMillis() {
+        return total == 0 ? 0 : sumNanos / (double) total / 1_000_000.0;
+    }
+
+    double maxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, in milliseconds.
+     */
+    double percentileMillis(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == BUCKETS ? maxMillis() : (i + 1) * BUCKET_NANOS / 1_000_000.0;
+            }
+        }
+        return maxMillis();
+    }
+}
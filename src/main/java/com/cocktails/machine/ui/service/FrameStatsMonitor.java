@@ -0,0 +1,131 @@
+package com.cocktails.machine.ui.service;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.scene.Scene;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in frame-time instrumentation, enabled with {@code -Dcocktail-machine.frameStats=true}.
+ * <p>
+ * An {@link AnimationTimer} records the interval between pulses, and pre/post layout pulse listeners record the
+ * time spent in CSS and layout, into fixed-size histograms. Recording allocates nothing; only the overlay text,
+ * refreshed every {@link #OVERLAY_WINDOW_NANOS}, creates a string. A summary of the whole session is logged on exit.
+ * <p>
+ * While running, the timer requests a pulse every frame, so leave it off in production.
+ */
+@Slf4j
+public class FrameStatsMonitor {
+    public static final String PROPERTY = "cocktail-machine.frameStats";
+    public static final int TARGET_FPS = 60;
+    private static final long FRAME_NANOS = 1_000_000_000L / TARGET_FPS;
+    // An interval counts as dropping frames once it exceeds one and a half frame budgets
+    private static final long LATE_NANOS = FRAME_NANOS * 3 / 2;
+    private static final long OVERLAY_WINDOW_NANOS = 2_000_000_000L;
+
+    private final boolean enabled = Boolean.getBoolean(PROPERTY);
+    private final FrameHistogram session = new FrameHistogram();
+    private final FrameHistogram window = new FrameHistogram();
+    private final FrameHistogram layout = new FrameHistogram();
+    private final StringProperty overlayText = new SimpleStringProperty("");
+    private long lastPulse;
+    private long windowStart;
+    private long layoutStart;
+    private Scene scene;
+    private final Runnable preLayout = () -> layoutStart = System.nanoTime();
+    private final Runnable postLayout = () -> {
+        if (layoutStart != 0) {
+            layout.record(System.nanoTime() - layoutStart, 0);
+        }
+    };
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onPulse(now);
+        }
+    };
+
+    private FrameStatsMonitor() {
+    }
+
+    public static FrameStatsMonitor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final FrameStatsMonitor INSTANCE = new FrameStatsMonitor();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Text for the status bar overlay, e.g. "p50 16.8 · p95 17.3 · p99 33.5 ms · dropped 2".
+     */
+    public ReadOnlyStringProperty overlayTextProperty() {
+        return overlayText;
+    }
+
+    /**
+     * Starts recording pulses of the given scene. Does nothing unless the monitor is enabled.
+     * Must be called on the FX thread.
+     */
+    public void start(Scene scene) {
+        if (!enabled || this.scene != null) {
+            return;
+        }
+        this.scene = scene;
+        scene.addPreLayoutPulseListener(preLayout);
+        scene.addPostLayoutPulseListener(postLayout);
+        lastPulse = 0;
+        timer.start();
+        log.info("Frame stats enabled, target {} fps", TARGET_FPS);
+    }
+
+    /**
+     * Stops recording and logs the session summary. Must be called on the FX thread.
+     */
+    public void stop() {
+        if (scene == null) {
+            return;
+        }
+        timer.stop();
+        scene.removePreLayoutPulseListener(preLayout);
+        scene.removePostLayoutPulseListener(postLayout);
+        scene = null;
+        log.info("Frame stats: {} frames, mean {} ms, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms, dropped {}; layout p95 {} ms, max {} ms",
+                session.count(), format(session.meanMillis()), format(session.percentileMillis(50)),
+                format(session.percentileMillis(95)), format(session.percentileMillis(99)),
+                format(session.maxMillis()), session.dropped(),
+                format(layout.percentileMillis(95)), format(layout.maxMillis()));
+    }
+
+    private void onPulse(long now) {
+        if (lastPulse == 0) {
+            lastPulse = now;
+            windowStart = now;
+            return;
+        }
+        long interval = now - lastPulse;
+        lastPulse = now;
+        long dropped = interval > LATE_NANOS ? Math.max(1, Math.round((double) interval / FRAME_NANOS) - 1) : 0;
+        session.record(interval, dropped);
+        window.record(interval, dropped);
+
+        if (now - windowStart >= OVERLAY_WINDOW_NANOS) {
+            overlayText.set("p50 %s · p95 %s · p99 %s ms · dropped %d".formatted(
+                    format(window.percentileMillis(50)), format(window.percentileMillis(95)),
+                    format(window.percentileMillis(99)), window.dropped()));
+            window.clear();
+            windowStart = now;
+        }
+    }
+
+    private static String format(double millis) {
+        return "%.1f".formatted(millis);
+    }
+}
@@ -1,23 +1,58 @@
 package com.cocktails.machine.ui.service;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.cocktails.machine.service.sensor.SensorPipeline;
+import com.cocktails.machine.service.sensor.SensorSource;
+import com.cocktails.machine.service.sensor.SimulatedTemperatureSource;
+import com.cocktails.machine.service.sensor.TimeSeriesStore;
+import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
-import javafx.util.Duration;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service that streams temperature data from a simulated source.
- * Uses Timeline for efficient periodic updates on the JavaFX thread.
+ * Service that streams the chiller temperature to the UI.
+ * The sensor is sampled and smoothed off the FX thread by a {@link SensorPipeline}; filtered values are handed
+ * over with at most one {@link Platform#runLater} outstanding, a value published while it is pending only replaces
+ * the one it will deliver. While streaming, every filtered value is also recorded in the {@code temperature}
+ * {@link TimeSeriesStore}, which is opened on start and closed on stop.
  */
+@Slf4j
 public class TemperatureStreamService {
-    private static final Duration REGULARITY = Duration.seconds(1);
+    private static final long SAMPLE_INTERVAL_NANOS = 20_000_000L;
+    private static final long PUBLISH_INTERVAL_NANOS = 250_000_000L;
+    private static final long SMOOTHING_NANOS = 2_000_000_000L;
+    private static final long NO_UPDATE = Double.doubleToRawLongBits(Double.NaN);
+
     private final DoubleProperty temperature = new SimpleDoubleProperty(22.5);
-    private static final Random RANDOM = new Random();
-    private Timeline timeline;
+    private final SensorPipeline pipeline;
+    // Null while stopped or if the history file could not be opened
+    private volatile TimeSeriesStore history;
+    private final AtomicLong latest = new AtomicLong(NO_UPDATE);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public TemperatureStreamService() {
+        this(new SimulatedTemperatureSource());
+    }
+
+    public TemperatureStreamService(SensorSource source) {
+        this.pipeline = new SensorPipeline("temperature", source, SAMPLE_INTERVAL_NANOS, PUBLISH_INTERVAL_NANOS,
+                SMOOTHING_NANOS, this::publish);
+    }
+
+    private static TimeSeriesStore openHistory() {
+        try {
+            return TimeSeriesStore.forSeries("temperature");
+        } catch (IOException e) {
+            log.error("Temperature history unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
 
     public ReadOnlyDoubleProperty temperatureProperty() {
         return temperature;
@@ -27,38 +62,60 @@ public class TemperatureStreamService {
         return temperature.get();
     }
 
+    /**
+     * Recorded temperatures, for diagnosing the chiller after the fact. Empty while not streaming.
+     */
+    public Optional<TimeSeriesStore> getHistory() {
+        return Optional.ofNullable(history);
+    }
+
     /**
      * Starts the temperature streaming service.
-     * Fires the first update immediately, then continues with periodic updates.
+     * The first value reaches the UI one publish interval after the start.
      */
-    public void startStreaming() {
-        // Stop existing timeline if any
-        if (timeline != null) {
-            timeline.stop();
+    public synchronized void startStreaming() {
+        if (history == null) {
+            history = openHistory();
         }
+        pipeline.start();
+    }
 
-        // Fire first update immediately so UI has a value right away
-        updateTemperature();
-
-        // Then start periodic updates
-        timeline = new Timeline(new KeyFrame(REGULARITY, e -> updateTemperature()));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+    /**
+     * Called on the pipeline's filter thread.
+     */
+    private void publish(double celsius) {
+        TimeSeriesStore store = history;
+        if (store != null) {
+            store.append(System.currentTimeMillis(), celsius);
+        }
+        latest.set(Double.doubleToRawLongBits(celsius));
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::deliver);
+        }
     }
 
-    private void updateTemperature() {
-        double newValue = RANDOM.nextDouble(15, 30);
-        temperature.set(newValue);
+    private void deliver() {
+        scheduled.set(false);
+        long bits = latest.getAndSet(NO_UPDATE);
+        if (bits != NO_UPDATE) {
+            temperature.set(Double.longBitsToDouble(bits));
+        }
     }
 
     /**
      * Stops the temperature streaming service
      */
-    public void stopStreaming() {
-        if (timeline != null) {
-            timeline.stop();
-            timeline = null;
+    public synchronized void stopStreaming() {
+        pipeline.stop();
+        if (history == null) {
+            return;
         }
+        try {
+            // After the pipeline has stopped, so no reading arrives once the periods in progress are written
+            history.close();
+        } catch (IOException e) {
+            log.error("Failed to close temperature history: {}", e.getMessage());
+        }
+        history = null;
     }
 }
-
@@ -0,0 +1,172 @@
+package com.cocktails.machine.util;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of decoded images, keyed by resource path and target size.
+ * Images are decoded in the background by JavaFX at the size the {@link ImageView} displays them, so a
+ * 280px card never holds a full-resolution bitmap. When {@link ThumbnailCache} has a pre-rendered thumbnail
+ * of exactly that size, the thumbnail is decoded instead of the source. The shared placeholder is decoded
+ * exactly once and is not part of the budget.
+ */
+@Slf4j
+public class ImageCache {
+    public static final String BUDGET_PROPERTY = "cocktail-machine.imageCacheBytes";
+    public static final long DEFAULT_BUDGET_BYTES = 32L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final String REQUESTED_KEY = "image-cache.requested";
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long budgetBytes = Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_BYTES);
+    private long usedBytes;
+    private Image placeholder;
+    private String placeholderPath;
+
+    private ImageCache() {
+    }
+
+    public static ImageCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final ImageCache INSTANCE = new ImageCache();
+    }
+
+    /**
+     * Sets the image shown while a cached image is still decoding, and for images that fail to load.
+     */
+    public synchronized void setPlaceholder(String resourcePath) {
+        if (resourcePath.equals(placeholderPath)) {
+            return;
+        }
+        URL url = ResourceUtils.getResourceURL(resourcePath);
+        placeholderPath = resourcePath;
+        placeholder = url == null ? null : new Image(url.toExternalForm(), true);
+    }
+
+    public synchronized Image getPlaceholder() {
+        return placeholder;
+    }
+
+    /**
+     * Returns the cached image for the path and size, starting a background decode on a miss.
+     * The returned image may still be loading; see {@link #load(ImageView, String)} for placeholder handling.
+     *
+     * @param width  target width, 0 for the natural size
+     * @param height target height, 0 for the natural size
+     */
+    public synchronized Image get(String resourcePath, double width, double height) {
+        if (resourcePath.equals(placeholderPath) && placeholder != null) {
+            return placeholder;
+        }
+        var key = new Key(resourcePath, width, height);
+        var entry = entries.get(key);
+        if (entry != null) {
+            return entry.image;
+        }
+
+        URL url = ResourceUtils.getResourceURL(resourcePath);
+        if (url == null) {
+            log.warn("Image not found at {}, using placeholder", resourcePath);
+            return placeholder;
+        }
+        String source = ThumbnailCache.getInstance().find(resourcePath, width, height).orElse(url.toExternalForm());
+        var image = new Image(source, width, height, true, true, true);
+        entry = new Entry(image, estimateBytes(width, height));
+        entries.put(key, entry);
+        usedBytes += entry.bytes;
+        trackActualSize(key, entry);
+        evict();
+        return image;
+    }
+
+    /**
+     * Shows the image in the view at the view's fit size. Until decoding finishes, the view shows the placeholder.
+     * Safe for recycled views: a late image never replaces one requested afterwards.
+     */
+    public void load(ImageView view, String resourcePath) {
+        var image = get(resourcePath, view.getFitWidth(), view.getFitHeight());
+        view.getProperties().put(REQUESTED_KEY, image);
+        if (image == null || image.getProgress() >= 1.0 && !image.isError()) {
+            view.setImage(image);
+            return;
+        }
+
+        view.setImage(getPlaceholder());
+        // Removed once it has run, so a cached image does not keep every view that ever asked for it
+        image.progressProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number progress) {
+                boolean requested = view.getProperties().get(REQUESTED_KEY) == image;
+                if (progress.doubleValue() < 1.0 && requested) {
+                    return;
+                }
+                observable.removeListener(this);
+                if (requested) {
+                    view.setImage(image.isError() ? getPlaceholder() : image);
+                }
+            }
+        });
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void trackActualSize(Key key, Entry entry) {
+        entry.image.progressProperty().addListener((observable, oldValue, progress) -> {
+            if (progress.doubleValue() < 1.0) {
+                return;
+            }
+            synchronized (this) {
+                if (entries.get(key) != entry) {
+                    return;
+                }
+                long actual = entry.image.isError() ? 0 : (long) (entry.image.getWidth() * entry.image.getHeight() * BYTES_PER_PIXEL);
+                usedBytes += actual - entry.bytes;
+                entry.bytes = actual;
+                if (entry.image.isError()) {
+                    entries.remove(key);
+                }
+                evict();
+            }
+        });
+    }
+
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (usedBytes > budgetBytes && entries.size() > 1 && it.hasNext()) {
+            usedBytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    private static long estimateBytes(double width, double height) {
+        // Unsized requests are corrected once the decoded size is known
+        double pixels = width > 0 && height > 0 ? width * height : 512 * 512;
+        return (long) (pixels * BYTES_PER_PIXEL);
+    }
+
+    private record Key(String path, double width, double height) {
+    }
+
+    private static final class Entry {
+        private final Image image;
+        private long bytes;
+
+        private Entry(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+}
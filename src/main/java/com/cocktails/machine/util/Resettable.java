@@ -0,0 +1,10 @@
+package com.cocktails.machine.util;
+
+/**
+ * Hook for controllers whose view is pooled by {@link ViewFactory}.
+ * Called when the view is handed back, so the next user gets it in its initial state.
+ */
+public interface Resettable {
+
+    void reset();
+}
@@ -1,8 +1,8 @@
 package com.cocktails.machine.util;
 
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
@@ -14,7 +14,6 @@ import java.net.URL;
 @Slf4j
 public class ResourceUtils {
 
-    private static final String VIEWS_FOLDER = "/com/cocktails/machine/view/";
     private static final String STYLES_FOLDER = "/com/cocktails/machine/styles/";
     private static final String IMAGES_FOLDER = "/com/cocktails/machine/images/";
     private static final String DEFAULT_COCKTAIL_IMAGE_PATH = "/com/cocktails/machine/images/cocktail.png";
@@ -24,46 +23,26 @@ public class ResourceUtils {
 
     /**
      * Loads an FXML view file and returns the loaded Parent.
+     * Served from the {@link ViewFactory} pool when a pre-built instance is available.
      *
      * @param viewName home-screen.fxml
      * @return The loaded Parent node
      * @throws RuntimeException if the FXML file cannot be loaded
      */
     public static Parent loadView(String viewName) {
-        var fxmlPath = VIEWS_FOLDER + viewName;
-        try {
-            var resource = ResourceUtils.class.getResource(fxmlPath);
-            if (resource == null) {
-                throw new RuntimeException("FXML resource not found: " + fxmlPath);
-            }
-            var loader = new FXMLLoader(resource);
-            return loader.load();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load FXML view: " + fxmlPath, e);
-        }
+        return ViewFactory.getInstance().acquire(viewName).parent();
     }
 
     /**
      * Loads an FXML view file and returns both the loaded Parent and the controller.
+     * Served from the {@link ViewFactory} pool when a pre-built instance is available.
      *
      * @param viewName Name of the view file (e.g., "home-screen.fxml")
      * @return A ViewResult containing both the Parent and the controller
      * @throws RuntimeException if the FXML file cannot be loaded
      */
     public static <T> ViewResult<T> loadViewWithController(String viewName) {
-        var fxmlPath = VIEWS_FOLDER + viewName;
-        try {
-            var resource = ResourceUtils.class.getResource(fxmlPath);
-            if (resource == null) {
-                throw new RuntimeException("FXML resource not found: " + fxmlPath);
-            }
-            var loader = new FXMLLoader(resource);
-            Parent view = loader.load();
-            T controller = loader.getController();
-            return new ViewResult<>(view, controller);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load FXML view: " + fxmlPath, e);
-        }
+        return ViewFactory.getInstance().acquire(viewName);
     }
 
     /**
@@ -97,38 +76,16 @@ public class ResourceUtils {
     /**
      * Loads a cocktail image. Returns the appropriate image based on the cocktail's image property.
      * If the cocktail has a specific image, it will be loaded; otherwise, the default image is used.
+     * Images come from the {@link ImageCache} and may still be decoding in the background.
      *
      * @param imageName The image name from cocktail.getImage() (can be null or empty)
      * @return Image object for the cocktail
      */
     public static Image loadCocktailImage(String imageName) {
         try {
-            String imagePath;
-
-            // Determine image path
-            if (imageName != null && !imageName.isEmpty()) {
-                // If image path doesn't start with /, assume it's in images folder
-                if (imageName.startsWith("/")) {
-                    imagePath = imageName;
-                } else {
-                    imagePath = IMAGES_FOLDER + imageName;
-                }
-            } else {
-                imagePath = DEFAULT_COCKTAIL_IMAGE_PATH;
-            }
-
-            // Try to load the specified image
-            URL imageURL = getResourceURL(imagePath);
-            if (imageURL != null) {
-                return new Image(imageURL.toExternalForm());
-            } else {
-                log.warn("Cocktail image not found at {}, using default", imagePath);
-                // Fallback to default image
-                URL defaultURL = getResourceURL(DEFAULT_COCKTAIL_IMAGE_PATH);
-                if (defaultURL != null) {
-                    return new Image(defaultURL.toExternalForm());
-                }
-            }
+            var cache = ImageCache.getInstance();
+            cache.setPlaceholder(DEFAULT_COCKTAIL_IMAGE_PATH);
+            return cache.get(resolveCocktailImagePath(imageName), 0, 0);
         } catch (Exception e) {
             log.error("Failed to load cocktail image: {}", e.getMessage(), e);
         }
@@ -137,6 +94,31 @@ public class ResourceUtils {
         return null;
     }
 
+    /**
+     * Shows a cocktail image in the view, decoded in the background at the view's fit size.
+     * The default cocktail image is shown until decoding finishes.
+     *
+     * @param imageView The view to display the image in
+     * @param imageName The image name from cocktail.getImage() (can be null or empty)
+     */
+    public static void loadCocktailImage(ImageView imageView, String imageName) {
+        try {
+            var cache = ImageCache.getInstance();
+            cache.setPlaceholder(DEFAULT_COCKTAIL_IMAGE_PATH);
+            cache.load(imageView, resolveCocktailImagePath(imageName));
+        } catch (Exception e) {
+            log.error("Failed to load cocktail image: {}", e.getMessage(), e);
+        }
+    }
+
+    static String resolveCocktailImagePath(String imageName) {
+        if (imageName == null || imageName.isEmpty()) {
+            return DEFAULT_COCKTAIL_IMAGE_PATH;
+        }
+        // If image path doesn't start with /, assume it's in images folder
+        return imageName.startsWith("/") ? imageName : IMAGES_FOLDER + imageName;
+    }
+
     /**
      * Result class for loading views with controllers.
      */
@@ -0,0 +1,218 @@
+package com.cocktails.machine.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of downscaled cocktail images under {@code ~/.cocktail-machine/thumbnails}.
+ * Each source image gets one PNG per {@link Variant}, named after the hash of the source bytes, so a changed
+ * image is re-rendered and the old thumbnails are pruned. Rendering runs on a low-priority background thread;
+ * {@link ImageCache} decodes a ready thumbnail instead of the full-size source.
+ */
+@Slf4j
+public class ThumbnailCache {
+    private static final String THUMBNAIL_DIR = "thumbnails";
+    private static final String FORMAT = "png";
+
+    private final Path directory;
+    private final Map<String, String> ready = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "thumbnail-cache");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private ThumbnailCache() {
+        String userHome = System.getProperty("user.home");
+        if (userHome != null && !userHome.isEmpty()) {
+            this.directory = Paths.get(userHome, ".cocktail-machine", THUMBNAIL_DIR);
+        } else {
+            this.directory = Paths.get(THUMBNAIL_DIR);
+        }
+    }
+
+    public static ThumbnailCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final ThumbnailCache INSTANCE = new ThumbnailCache();
+    }
+
+    /**
+     * Thumbnail sizes, matching the fit sizes of the card and detail screen image views.
+     */
+    public enum Variant {
+        CARD(280, 280),
+        DETAIL(300, 280);
+
+        private final int width;
+        private final int height;
+
+        Variant(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Renders missing thumbnails for the given cocktail images in the background and prunes stale ones.
+     *
+     * @param imageNames values of cocktail.getImage() (null or empty means the default image)
+     */
+    public void warmUp(Collection<String> imageNames) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (String imageName : imageNames) {
+            paths.add(ResourceUtils.resolveCocktailImagePath(imageName));
+        }
+        executor.execute(() -> render(paths));
+    }
+
+    /**
+     * Returns the URL of a ready thumbnail rendered for exactly this path and size.
+     */
+    public Optional<String> find(String resourcePath, double width, double height) {
+        return Optional.ofNullable(ready.get(key(resourcePath, (int) width, (int) height)));
+    }
+
+    private void render(Set<String> paths) {
+        long start = System.nanoTime();
+        Set<Path> current = new HashSet<>();
+        int rendered = 0;
+        try {
+            Files.createDirectories(directory);
+            for (String path : paths) {
+                rendered += render(path, current);
+            }
+            prune(current);
+        } catch (Exception e) {
+            log.error("Thumbnail warm-up failed: {}", e.getMessage(), e);
+        }
+        log.info("Thumbnails ready for {} images ({} rendered) in {} ms",
+                paths.size(), rendered, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int render(String resourcePath, Set<Path> current) {
+        URL url = ResourceUtils.getResourceURL(resourcePath);
+        if (url == null) {
+            return 0;
+        }
+        int rendered = 0;
+        try {
+            byte[] source;
+            try (InputStream in = url.openStream()) {
+                source = in.readAllBytes();
+            }
+            String hash = hash(source);
+            BufferedImage decoded = null;
+
+            for (Variant variant : Variant.values()) {
+                Path file = directory.resolve("%s-%dx%d.%s".formatted(hash, variant.width, variant.height, FORMAT));
+                current.add(file);
+                if (!Files.exists(file)) {
+                    if (decoded == null) {
+                        decoded = ImageIO.read(new ByteArrayInputStream(source));
+                        if (decoded == null) {
+                            log.warn("Unsupported image format: {}", resourcePath);
+                            return rendered;
+                        }
+                    }
+                    if (!write(scale(decoded, variant), file)) {
+                        // Source is already smaller than the variant, decoding it directly is as cheap
+                        continue;
+                    }
+                    rendered++;
+                }
+                ready.put(key(resourcePath, variant.width, variant.height), file.toUri().toString());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to render thumbnails for {}: {}", resourcePath, e.getMessage());
+        }
+        return rendered;
+    }
+
+    private static BufferedImage scale(BufferedImage source, Variant variant) {
+        double scale = Math.min((double) variant.width / source.getWidth(), (double) variant.height / source.getHeight());
+        if (scale >= 1.0) {
+            return null;
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        var target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static boolean write(BufferedImage image, Path file) throws IOException {
+        if (image == null) {
+            return false;
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        ImageIO.write(image, FORMAT, tempFile.toFile());
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    private void prune(Set<Path> current) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> !current.contains(file)).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Failed to delete stale thumbnail {}: {}", file, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String key(String resourcePath, int width, int height) {
+        return resourcePath + '@' + width + 'x' + height;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cocktails.machine.util;
+
+import com.cocktails.machine.util.ResourceUtils.ViewResult;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds FXML views and pools pre-built node/controller pairs.
+ * <p>
+ * {@link FXMLLoader} cannot instantiate a parsed document twice, so the template cache keeps the resolved URL and
+ * the raw FXML bytes of every view (no classpath lookup or jar read per build), and the pools keep complete
+ * instances built ahead of time by {@link #prewarm(String, int)} or handed back with {@link #release(String, ViewResult)}.
+ * A released controller implementing {@link Resettable} is reset before it is reused.
+ */
+@Slf4j
+public class ViewFactory {
+
+    public static final int MAX_POOL_SIZE = 32;
+    private static final String VIEWS_FOLDER = "/com/cocktails/machine/view/";
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final Map<String, Deque<ViewResult<?>>> pools = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    private ViewFactory() {
+    }
+
+    public static ViewFactory getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final ViewFactory INSTANCE = new ViewFactory();
+    }
+
+    /**
+     * Returns a pooled instance of the view if one is available, otherwise builds a new one.
+     *
+     * @param viewName Name of the view file (e.g., "home-screen.fxml")
+     * @throws RuntimeException if the FXML file cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ViewResult<T> acquire(String viewName) {
+        var pooled = pool(viewName).poll();
+        if (pooled != null) {
+            hits.increment();
+            return (ViewResult<T>) pooled;
+        }
+        misses.increment();
+        return build(viewName);
+    }
+
+    /**
+     * Hands a view back for reuse. The view must no longer be part of a scene.
+     */
+    public void release(String viewName, ViewResult<?> view) {
+        if (view == null) {
+            return;
+        }
+        if (view.controller() instanceof Resettable resettable) {
+            resettable.reset();
+        }
+        var pool = pool(viewName);
+        if (pool.size() < MAX_POOL_SIZE) {
+            pool.push(view);
+        }
+    }
+
+    /**
+     * Builds instances ahead of time until the pool holds {@code count} of them.
+     * Safe to call off the FX thread as long as the views are not attached to a showing scene.
+     */
+    public void prewarm(String viewName, int count) {
+        var pool = pool(viewName);
+        int target = Math.min(count, MAX_POOL_SIZE);
+        while (pool.size() < target) {
+            pool.push(build(viewName));
+        }
+    }
+
+    public Stats getStats() {
+        long buildCount = builds.sum();
+        return new Stats(hits.sum(), misses.sum(), buildCount,
+                buildCount == 0 ? 0 : buildNanos.sum() / buildCount / 1_000_000.0);
+    }
+
+    private <T> ViewResult<T> build(String viewName) {
+        var template = templates.computeIfAbsent(viewName, ViewFactory::loadTemplate);
+        long start = System.nanoTime();
+        try {
+            var loader = new FXMLLoader(template.location());
+            Parent view = loader.load(new ByteArrayInputStream(template.content()));
+            T controller = loader.getController();
+            return new ViewResult<>(view, controller);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load FXML view: " + template.location(), e);
+        } finally {
+            builds.increment();
+            buildNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private Deque<ViewResult<?>> pool(String viewName) {
+        return pools.computeIfAbsent(viewName, name -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static Template loadTemplate(String viewName) {
+        var fxmlPath = VIEWS_FOLDER + viewName;
+        URL resource = ViewFactory.class.getResource(fxmlPath);
+        if (resource == null) {
+            throw new RuntimeException("FXML resource not found: " + fxmlPath);
+        }
+        try (InputStream in = resource.openStream()) {
+            return new Template(resource, in.readAllBytes());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read FXML view: " + fxmlPath, e);
+        }
+    }
+
+    private record Template(URL location, byte[] content) {
+    }
+
+    /**
+     * @param hits             acquisitions served from a pool
+     * @param misses           acquisitions that had to build a view
+     * @param builds           views built in total, including prewarmed ones
+     * @param averageBuildMillis mean time to build one view
+     */
+    public record Stats(long hits, long misses, long builds, double averageBuildMillis) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=%d misses=%d hitRate=%.0f%% builds=%d avgBuild=%.1fms"
+                    .formatted(hits, misses, hitRate() * 100, builds, averageBuildMillis);
+        }
+    }
+}
@@ -9,9 +9,12 @@ module com.cocktails.machine {
     requires static lombok;
     requires org.slf4j;
     requires javafx.base;
+    requires java.desktop;
 
     opens com.cocktails.machine to javafx.fxml;
     opens com.cocktails.machine.ui.controller to javafx.fxml;
+    opens com.cocktails.machine.ui.component to javafx.fxml;
     opens com.cocktails.machine.model to com.google.gson;
+    opens com.cocktails.machine.repository to com.google.gson;
     exports com.cocktails.machine;
 }
@@ -0,0 +1,55 @@
+package com.cocktails.machine.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Recovery of the catalog journal from a record torn by a crash.
+ */
+class CatalogJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAfterTornRecordStartsOnItsOwnLine() throws IOException {
+        Path path = directory.resolve("catalog.journal");
+        var journal = new CatalogJournal(path);
+        journal.append(JournalEntry.favorite("Mojito", true));
+        journal.close();
+        // A crash in the middle of the next record
+        Files.writeString(path, "{\"op\":\"FAVORITE\",\"na", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        var restarted = new CatalogJournal(path);
+        restarted.append(JournalEntry.favorite("Negroni", true));
+        restarted.close();
+
+        List<JournalEntry> replayed = new ArrayList<>();
+        assertEquals(2, new CatalogJournal(path).replay(replayed::add));
+        assertEquals(List.of(JournalEntry.favorite("Mojito", true), JournalEntry.favorite("Negroni", true)), replayed);
+    }
+
+    @Test
+    void tornFirstRecordIsDroppedEntirely() throws IOException {
+        Path path = directory.resolve("catalog.journal");
+        Files.writeString(path, "{\"op\":\"FAV", StandardCharsets.UTF_8);
+
+        var journal = new CatalogJournal(path);
+        journal.append(JournalEntry.favorite("Mojito", false));
+        journal.close();
+
+        List<JournalEntry> replayed = new ArrayList<>();
+        assertEquals(1, new CatalogJournal(path).replay(replayed::add));
+        assertEquals(JournalEntry.favorite("Mojito", false), replayed.get(0));
+    }
+}
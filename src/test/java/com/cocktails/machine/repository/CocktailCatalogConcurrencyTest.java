@@ -0,0 +1,118 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.ui.controller.HomeScreenController.CocktailFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Readers hold catalog versions while a writer publishes favorite changes; every version they hold must stay
+ * internally consistent and unchanged.
+ */
+class CocktailCatalogConcurrencyTest {
+    private static final int COCKTAILS = 200;
+    private static final int READERS = 4;
+    private static final int WRITES = 20_000;
+
+    private volatile CocktailCatalog published;
+
+    @Test
+    void readersSeeStableVersionsWhileWriterPublishes() throws Exception {
+        var cocktails = new ArrayList<Cocktail>(COCKTAILS);
+        for (int i = 0; i < COCKTAILS; i++) {
+            var cocktail = new Cocktail("Cocktail " + i, "", "");
+            cocktail.setIngredients(List.of("30 ml Gin", "Ingredient " + (i % 17)));
+            cocktails.add(cocktail);
+        }
+        published = new CocktailCatalog(cocktails);
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+        var start = new CountDownLatch(1);
+        var done = new AtomicBoolean();
+        try {
+            var readers = new ArrayList<Future<Integer>>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    int checked = 0;
+                    while (!done.get() || checked == 0) {
+                        checkVersion(published);
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                var random = new Random(42);
+                for (int i = 0; i < WRITES; i++) {
+                    var current = published;
+                    var cocktail = current.cocktails().get(random.nextInt(COCKTAILS));
+                    published = current.withFavorite(cocktail, !current.isFavorite(cocktail));
+                }
+                done.set(true);
+                return null;
+            });
+
+            start.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Cocktail cocktail : cocktails) {
+            assertFalse(cocktail.isFavorite(), "Publishing must not modify the shared cocktails");
+        }
+    }
+
+    @Test
+    void favoriteChangeLeavesPreviousVersionUntouched() {
+        var gin = new Cocktail("Gin Tonic", "", "");
+        gin.setIngredients(List.of("50 ml Gin", "Tonic"));
+        var before = new CocktailCatalog(List.of(gin));
+
+        var after = before.withFavorite(gin, true);
+
+        assertFalse(before.isFavorite(gin));
+        assertTrue(before.snapshot(CocktailFilter.FAVOURITES).isEmpty());
+        assertTrue(after.isFavorite(gin));
+        assertEquals(List.of(gin), after.snapshot(CocktailFilter.FAVOURITES));
+        assertTrue(after == after.withFavorite(gin, true));
+    }
+
+    /**
+     * The favorites snapshot, the favorite bits and the ranks of one version agree, and reading the version again
+     * gives the same result.
+     */
+    private static void checkVersion(CocktailCatalog version) {
+        List<Cocktail> favorites = version.snapshot(CocktailFilter.FAVOURITES);
+        var expected = new ArrayList<Cocktail>();
+        for (int i = 0; i < version.size(); i++) {
+            Cocktail cocktail = version.cocktails().get(i);
+            if (version.isFavorite(i)) {
+                assertEquals(expected.size(), version.favoritesRank(i));
+                expected.add(cocktail);
+            }
+            assertEquals(version.isFavorite(i), version.isFavorite(cocktail));
+        }
+        assertEquals(expected, favorites);
+        assertEquals(favorites, version.snapshot(CocktailFilter.FAVOURITES));
+        assertEquals(expected.size(), version.favorites().cardinality());
+    }
+}
@@ -0,0 +1,34 @@
+package com.cocktails.machine.repository;
+
+import com.cocktails.machine.model.Cocktail;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IngredientIndexTest {
+
+    @Test
+    void indexAndDictionaryAgreeOnIngredientNames() {
+        var leading = cocktail("Leading", "30 ml Gin", "1 1/2 oz. of Lime Juice");
+        var trailing = cocktail("Trailing", "Gin (30 ml)", "Lime juice: 20 ml");
+        var catalog = new CocktailCatalog(List.of(leading, trailing));
+        var index = new IngredientIndex(catalog.cocktails());
+
+        assertEquals(Set.of("gin", "lime juice"), index.ingredientNames());
+        for (String name : index.ingredientNames()) {
+            assertEquals(name, MeasureParser.parse(name).name());
+        }
+        assertEquals(leading.getRecipe().ingredientId(0), trailing.getRecipe().ingredientId(0));
+        assertEquals(2, index.allOf(List.of("Gin (50 ml)", "lime juice")).cardinality());
+        assertEquals(2, index.makeableFrom(List.of("Gin", "2 cl Lime Juice")).cardinality());
+    }
+
+    private static Cocktail cocktail(String name, String... ingredients) {
+        var cocktail = new Cocktail(name, "", "");
+        cocktail.setIngredients(List.of(ingredients));
+        return cocktail;
+    }
+}
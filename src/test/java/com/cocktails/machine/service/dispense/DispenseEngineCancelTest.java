@@ -0,0 +1,199 @@
+package com.cocktails.machine.service.dispense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cancel-to-stop latency of the dispense engine, on the virtual clock the capacity simulation uses, so every run
+ * sees the same pump timings.
+ */
+class DispenseEngineCancelTest {
+    private static final int PUMPS = 6;
+    private static final double FLOW_RATE = 20;
+    private static final int MAX_CONCURRENT_PUMPS = 4;
+    private static final long MILLIS = 1_000_000L;
+
+    private VirtualClock clock;
+    private RecordingDriver driver;
+    private DispenseEngine engine;
+    private PourPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock();
+        driver = new RecordingDriver(clock);
+        engine = new DispenseEngine(driver, MAX_CONCURRENT_PUMPS, clock);
+        var configuration = PumpConfiguration.of(driver, MAX_CONCURRENT_PUMPS, IntStream.range(0, PUMPS).boxed().toList());
+        // 100 ml on each of two pumps, 5 s of pouring after the prime
+        plan = new PourPlanner().plan(List.of(new PourRequest(0, 100, 0), new PourRequest(1, 100, 0)), configuration);
+    }
+
+    @Test
+    void cancelStopsPumpsBeforeReturningBetweenTicks() {
+        var first = engine.submit("First", plan, new Listener());
+        var second = new Listener();
+        engine.submit("Second", plan, second);
+        // Mid-pour and off the tick grid, so a stop left to the next tick would let more flow
+        engine.advance(DispenseEngine.PRIME_NANOS + 2_502 * MILLIS);
+        assertTrue(driver.isRunning(0) && driver.isRunning(1), "the first order should be pouring");
+
+        long cancelledAt = clock.now();
+        List<PourReport> reports = engine.cancel(first.id()).join();
+
+        assertEquals(cancelledAt, driver.lastStopNanos(0));
+        assertEquals(cancelledAt, driver.lastStopNanos(1));
+        assertEquals(1, reports.size());
+        double poured = driver.dispensedMl(0) + driver.dispensedMl(1);
+        assertEquals(poured, reports.get(0).pouredMl(), 1e-9);
+        assertEquals(2 * 2.502 * FLOW_RATE, poured, 1e-6);
+
+        // The next order takes over the pumps and finishes; the cancelled one never restarts them
+        int startsBefore = driver.starts();
+        engine.advance(20_000 * MILLIS);
+        assertTrue(second.finished);
+        assertEquals(startsBefore + 2, driver.starts());
+        assertTrue(engine.getOrders().isEmpty());
+    }
+
+    @Test
+    void emergencyStopHaltsEveryOrderAtOnce() {
+        var first = new Listener();
+        var second = new Listener();
+        engine.submit("First", plan, first);
+        engine.submit("Second", plan, second);
+        engine.advance(DispenseEngine.PRIME_NANOS + 1_001 * MILLIS);
+
+        long stoppedAt = clock.now();
+        List<PourReport> reports = engine.emergencyStop().join();
+
+        assertEquals(2, reports.size());
+        assertTrue(first.cancelled && second.cancelled);
+        for (int pump = 0; pump < PUMPS; pump++) {
+            assertFalse(driver.isRunning(pump));
+        }
+        assertEquals(stoppedAt, driver.lastStopNanos(0));
+        int starts = driver.starts();
+        engine.advance(20_000 * MILLIS);
+        assertEquals(starts, driver.starts());
+    }
+
+    @Test
+    void shutdownLatchesTheStop() {
+        engine.submit("First", plan, new Listener());
+        engine.advance(DispenseEngine.PRIME_NANOS + 1_000 * MILLIS);
+
+        engine.shutdown();
+        int starts = driver.starts();
+        engine.advance(20_000 * MILLIS);
+
+        assertEquals(starts, driver.starts());
+        assertFalse(driver.isRunning(0) || driver.isRunning(1));
+        assertThrows(IllegalStateException.class, () -> engine.submit("Late", plan, new Listener()));
+    }
+
+    @Test
+    void failedTickCancelsThePipelineAndReportsWhatFlowed() {
+        var first = new Listener();
+        engine.submit("First", plan, first);
+        var poured = new double[PUMPS];
+        engine.setPourObserver((pump, ingredientId, volumeMl) -> poured[pump] += volumeMl);
+        engine.advance(DispenseEngine.PRIME_NANOS + 1_000 * MILLIS);
+
+        driver.failNextReading();
+        engine.advance(10 * MILLIS);
+
+        assertTrue(first.cancelled);
+        assertFalse(first.finished);
+        assertEquals(0, engine.getMetrics().completed());
+        assertFalse(driver.isRunning(0) || driver.isRunning(1));
+        // Both half-poured steps are debited with what their meters measured
+        assertEquals(driver.dispensedMl(0), poured[0], 1e-9);
+        assertEquals(driver.dispensedMl(1), poured[1], 1e-9);
+        assertTrue(poured[0] > 0 && poured[1] > 0);
+        assertTrue(engine.getOrders().isEmpty());
+    }
+
+    private static final class Listener implements DispenseListener {
+        private boolean finished;
+        private boolean cancelled;
+
+        @Override
+        public void onProgress(double percentage) {
+        }
+
+        @Override
+        public void onFinished() {
+            finished = true;
+        }
+
+        @Override
+        public void onCancelled() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Simulated pumps that remember when they were last stopped and how often they were started.
+     */
+    private static final class RecordingDriver extends SimulatedPumpDriver {
+        private final VirtualClock clock;
+        private final long[] lastStop = new long[PUMPS];
+        private final boolean[] running = new boolean[PUMPS];
+        private int starts;
+        private boolean failNextReading;
+
+        RecordingDriver(VirtualClock clock) {
+            super(PUMPS, FLOW_RATE, clock);
+            this.clock = clock;
+        }
+
+        @Override
+        public synchronized void start(int pump) {
+            super.start(pump);
+            running[pump] = true;
+            starts++;
+        }
+
+        @Override
+        public synchronized void stop(int pump) {
+            if (running[pump]) {
+                lastStop[pump] = clock.now();
+                running[pump] = false;
+            }
+            super.stop(pump);
+        }
+
+        @Override
+        public synchronized double dispensedMl(int pump) {
+            if (failNextReading) {
+                failNextReading = false;
+                throw new IllegalStateException("Flow meter " + pump + " did not answer");
+            }
+            return super.dispensedMl(pump);
+        }
+
+        synchronized void failNextReading() {
+            failNextReading = true;
+        }
+
+        synchronized boolean isRunning(int pump) {
+            return running[pump];
+        }
+
+        synchronized long lastStopNanos(int pump) {
+            return lastStop[pump];
+        }
+
+        synchronized int starts() {
+            return starts;
+        }
+    }
+}
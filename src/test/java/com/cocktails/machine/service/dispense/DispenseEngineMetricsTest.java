@@ -0,0 +1,49 @@
+package com.cocktails.machine.service.dispense;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DispenseEngineMetricsTest {
+    private static final int PUMPS = 6;
+    private static final int MAX_CONCURRENT_PUMPS = 4;
+
+    @Test
+    void meanWaitOnlyCoversCompletedOrders() {
+        var clock = new VirtualClock();
+        var driver = new SimulatedPumpDriver(PUMPS, 20, clock);
+        var engine = new DispenseEngine(driver, MAX_CONCURRENT_PUMPS, clock);
+        var configuration = PumpConfiguration.of(driver, MAX_CONCURRENT_PUMPS, IntStream.range(0, PUMPS).boxed().toList());
+        var planner = new PourPlanner();
+        // The first order pours 20 ml for 1 s, the second 200 ml for 10 s, both entering the pipeline at once
+        var shortPlan = planner.plan(List.of(new PourRequest(0, 20, 0)), configuration);
+        var longPlan = planner.plan(List.of(new PourRequest(1, 200, 0)), configuration);
+        engine.submit("Short", shortPlan, new NoOpListener());
+        engine.submit("Long", longPlan, new NoOpListener());
+        var third = engine.submit("Third", shortPlan, new NoOpListener());
+
+        // The short order finishes and the third one enters the pipeline after waiting
+        engine.advance(DispenseEngine.PRIME_NANOS + 1_200_000_000L);
+        assertEquals(1, engine.getMetrics().completed());
+        assertEquals(0, engine.getMetrics().meanWaitSeconds(), 1e-9);
+
+        // Cancelled after admission, its wait must not count towards the completed orders
+        engine.cancel(third.id());
+        engine.advance(20_000_000_000L);
+        assertEquals(2, engine.getMetrics().completed());
+        assertEquals(0, engine.getMetrics().meanWaitSeconds(), 1e-9);
+    }
+
+    private static final class NoOpListener implements DispenseListener {
+        @Override
+        public void onProgress(double percentage) {
+        }
+
+        @Override
+        public void onFinished() {
+        }
+    }
+}
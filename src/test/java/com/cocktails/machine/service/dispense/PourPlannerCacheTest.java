@@ -0,0 +1,53 @@
+package com.cocktails.machine.service.dispense;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PourPlannerCacheTest {
+    private static final int PUMPS = 6;
+
+    private final SimulatedPumpDriver driver = new SimulatedPumpDriver(PUMPS, 20, new VirtualClock());
+    private final PumpConfiguration configuration = PumpConfiguration.of(driver, 4, IntStream.range(0, PUMPS).boxed().toList());
+    private final AtomicInteger planned = new AtomicInteger();
+
+    @Test
+    void evictsLeastRecentlyUsedPlan() {
+        var planner = new PourPlanner(2);
+        var first = planner.planFor("First", requests(), configuration);
+        planner.planFor("Second", requests(), configuration);
+        // Touch the first plan, so the second one is the eldest
+        assertSame(first, planner.planFor("First", requests(), configuration));
+        planner.planFor("Third", requests(), configuration);
+
+        assertEquals(2, planner.size());
+        assertSame(first, planner.planFor("First", requests(), configuration));
+        assertEquals(3, planned.get());
+        planner.planFor("Second", requests(), configuration);
+        assertEquals(4, planned.get());
+    }
+
+    @Test
+    void clearDropsEveryPlan() {
+        var planner = new PourPlanner(8);
+        planner.planFor("First", requests(), configuration);
+        planner.clear();
+
+        assertEquals(0, planner.size());
+        planner.planFor("First", requests(), configuration);
+        assertEquals(2, planned.get());
+    }
+
+    private Supplier<List<PourRequest>> requests() {
+        return () -> {
+            planned.incrementAndGet();
+            return List.of(new PourRequest(0, 30, 0));
+        };
+    }
+}
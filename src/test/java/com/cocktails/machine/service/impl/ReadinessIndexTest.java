@@ -0,0 +1,63 @@
+package com.cocktails.machine.service.impl;
+
+import com.cocktails.machine.model.Cocktail;
+import com.cocktails.machine.model.Recipe;
+import com.cocktails.machine.model.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadinessIndexTest {
+    private static final int GIN = 0;
+    private static final int TONIC = 1;
+
+    @Test
+    void eachCocktailIsReadyAtItsOwnNeed() {
+        var small = cocktail(new int[]{GIN}, 30);
+        var large = cocktail(new int[]{GIN}, 100);
+        var index = new ReadinessIndex(List.of(small, large), 2);
+
+        // The large recipe must not hold back the small one
+        assertTrue(index.setStock(GIN, 50));
+        assertEquals(0b01, readyBits(index));
+
+        index.setStock(GIN, 100);
+        assertEquals(0b11, readyBits(index));
+
+        index.setStock(GIN, 29.9);
+        assertEquals(0, readyBits(index));
+    }
+
+    @Test
+    void repeatedLinesOfAnIngredientAreSummed() {
+        var twice = cocktail(new int[]{GIN, TONIC, GIN}, 20, 100, 20);
+        var index = new ReadinessIndex(List.of(twice), 2);
+        index.setStock(TONIC, 200);
+
+        // Covers each line, not both of them
+        assertFalse(index.setStock(GIN, 35));
+        assertEquals(1, index.missingCount(0));
+
+        assertTrue(index.setStock(GIN, 40));
+        assertEquals(0, index.missingCount(0));
+        assertEquals(1, index.usage(GIN));
+    }
+
+    private static long readyBits(ReadinessIndex index) {
+        var ready = index.copyReady().toLongArray();
+        return ready.length == 0 ? 0 : ready[0];
+    }
+
+    private static Cocktail cocktail(int[] ingredients, double... millilitres) {
+        var units = new byte[ingredients.length];
+        Arrays.fill(units, (byte) Unit.ML.ordinal());
+        var cocktail = new Cocktail("Cocktail", "", "");
+        cocktail.setRecipe(new Recipe(ingredients, millilitres, units));
+        return cocktail;
+    }
+}
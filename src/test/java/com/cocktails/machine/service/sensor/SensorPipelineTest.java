@@ -0,0 +1,71 @@
+package com.cocktails.machine.service.sensor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SensorPipelineTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void restartsNeverOverlapOldThreads() {
+        var inRead = new AtomicInteger();
+        var maxInRead = new AtomicInteger();
+        var reads = new AtomicInteger();
+        SensorSource source = () -> {
+            maxInRead.accumulateAndGet(inRead.incrementAndGet(), Math::max);
+            // A slow conversion, so an old sampler would still be reading when a new one starts
+            LockSupport.parkNanos(2 * MILLIS);
+            reads.incrementAndGet();
+            inRead.decrementAndGet();
+            return 20;
+        };
+        var pipeline = new SensorPipeline("test", source, MILLIS, 5 * MILLIS, 10 * MILLIS, value -> {});
+
+        for (int i = 0; i < 20; i++) {
+            pipeline.start();
+            LockSupport.parkNanos(3 * MILLIS);
+            pipeline.stop();
+        }
+
+        // Once stop() returned no sampler is left to read
+        int readsAfterStop = reads.get();
+        LockSupport.parkNanos(20 * MILLIS);
+        assertEquals(readsAfterStop, reads.get());
+        assertEquals(0, inRead.get());
+        assertEquals(1, maxInRead.get());
+    }
+
+    @Test
+    void restartDropsSamplesTakenBeforeTheStop() {
+        var reading = new AtomicInteger(100);
+        var published = new ArrayList<Double>();
+        // Published rarely and smoothed slowly, so samples left in the ring would dominate the first value
+        var pipeline = new SensorPipeline("test", reading::get, MILLIS, 50 * MILLIS, 10_000 * MILLIS, value -> {
+            synchronized (published) {
+                published.add(value);
+            }
+        });
+        pipeline.start();
+        LockSupport.parkNanos(80 * MILLIS);
+        pipeline.stop();
+
+        reading.set(0);
+        synchronized (published) {
+            published.clear();
+        }
+        pipeline.start();
+        LockSupport.parkNanos(80 * MILLIS);
+        pipeline.stop();
+
+        synchronized (published) {
+            assertFalse(published.isEmpty());
+            assertEquals(0, published.get(0), 1e-9);
+        }
+    }
+}
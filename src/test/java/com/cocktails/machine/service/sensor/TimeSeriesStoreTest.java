@@ -0,0 +1,169 @@
+package com.cocktails.machine.service.sensor;
+
+import com.cocktails.machine.service.sensor.TimeSeriesStore.Resolution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeSeriesStoreTest {
+    private static final long SECOND = 1_000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    // A whole hour, so minute and hour periods start on it
+    private static final long T0 = 1_700_000_000_000L - Math.floorMod(1_700_000_000_000L, HOUR);
+
+    @TempDir
+    Path directory;
+
+    private record Point(long millis, double min, double max, double mean, int count) {
+    }
+
+    private TimeSeriesStore open(int rawCapacity) throws IOException {
+        return new TimeSeriesStore(directory.resolve("test.ts"), SECOND, rawCapacity, 8, 4);
+    }
+
+    private static List<Point> query(TimeSeriesStore store, Resolution resolution, long from, long to) {
+        var points = new ArrayList<Point>();
+        store.query(resolution, from, to, (millis, min, max, mean, count) -> points.add(new Point(millis, min, max, mean, count)));
+        return points;
+    }
+
+    @Test
+    void rawRingKeepsTheNewestReadingsWhenItWrapsAround() throws IOException {
+        try (var store = open(5)) {
+            for (int i = 0; i < 12; i++) {
+                store.append(T0 + i * SECOND, i);
+            }
+
+            assertEquals(5, store.size(Resolution.RAW));
+            List<Point> points = query(store, Resolution.RAW, Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(List.of(7.0, 8.0, 9.0, 10.0, 11.0), points.stream().map(Point::mean).toList());
+            assertEquals(T0 + 7 * SECOND, points.get(0).millis());
+        }
+    }
+
+    @Test
+    void rawReadingsCloserThanTheIntervalAreNotStored() throws IOException {
+        try (var store = open(16)) {
+            store.append(T0, 1);
+            store.append(T0 + 400, 2);
+            store.append(T0 + SECOND, 3);
+
+            assertEquals(List.of(1.0, 3.0), query(store, Resolution.RAW, T0, T0 + MINUTE).stream().map(Point::mean).toList());
+            // The rollup still sees every reading
+            assertEquals(3, query(store, Resolution.MINUTE, T0, T0).get(0).count());
+        }
+    }
+
+    @Test
+    void rollupsCommitAtPeriodBoundaries() throws IOException {
+        try (var store = open(16)) {
+            store.append(T0, 10);
+            store.append(T0 + MINUTE - 1, 20);
+            // The first reading of the next minute and of the next hour
+            store.append(T0 + MINUTE, 30);
+            store.append(T0 + HOUR, 40);
+
+            assertEquals(2, store.size(Resolution.MINUTE));
+            assertEquals(1, store.size(Resolution.HOUR));
+            assertEquals(List.of(new Point(T0, 10, 20, 15, 2), new Point(T0 + MINUTE, 30, 30, 30, 1),
+                            new Point(T0 + HOUR, 40, 40, 40, 1)),
+                    query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE));
+            assertEquals(List.of(new Point(T0, 10, 30, 20, 3), new Point(T0 + HOUR, 40, 40, 40, 1)),
+                    query(store, Resolution.HOUR, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void queryIncludesBothBoundsAndNothingOutside() throws IOException {
+        try (var store = open(16)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(T0 + i * SECOND, i);
+            }
+
+            assertEquals(List.of(3.0, 4.0, 5.0),
+                    query(store, Resolution.RAW, T0 + 3 * SECOND, T0 + 5 * SECOND).stream().map(Point::mean).toList());
+            assertEquals(List.of(3.0, 4.0),
+                    query(store, Resolution.RAW, T0 + 2 * SECOND + 1, T0 + 5 * SECOND - 1).stream().map(Point::mean).toList());
+            assertEquals(List.of(), query(store, Resolution.RAW, T0 + 10 * SECOND, Long.MAX_VALUE));
+            assertEquals(List.of(), query(store, Resolution.RAW, Long.MIN_VALUE, T0 - 1));
+            // The minute in progress starts at T0 and is only returned when the range holds its start
+            assertEquals(1, query(store, Resolution.MINUTE, T0, T0).size());
+            assertEquals(List.of(), query(store, Resolution.MINUTE, T0 + 1, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void reopeningContinuesTheHistory() throws IOException {
+        try (var store = open(16)) {
+            store.append(T0, 10);
+            store.append(T0 + MINUTE, 20);
+        }
+        try (var store = open(16)) {
+            assertEquals(2, query(store, Resolution.RAW, Long.MIN_VALUE, Long.MAX_VALUE).size());
+            // Older than what the file holds
+            store.append(T0 + 30 * SECOND, 99);
+            store.append(T0 + 2 * MINUTE, 30);
+
+            assertEquals(List.of(10.0, 20.0, 30.0),
+                    query(store, Resolution.RAW, Long.MIN_VALUE, Long.MAX_VALUE).stream().map(Point::mean).toList());
+            assertEquals(List.of(T0, T0 + MINUTE, T0 + 2 * MINUTE),
+                    query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE).stream().map(Point::millis).toList());
+        }
+    }
+
+    @Test
+    void closeKeepsThePeriodsInProgressAndReopeningResumesThem() throws IOException {
+        try (var store = open(16)) {
+            store.append(T0, 10);
+            store.append(T0 + SECOND, 20);
+        }
+        try (var store = open(16)) {
+            assertEquals(List.of(new Point(T0, 10, 20, 15, 2)), query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE));
+            // Same minute and hour as before the restart
+            store.append(T0 + 2 * SECOND, 30);
+            store.append(T0 + MINUTE, 40);
+
+            assertEquals(List.of(new Point(T0, 10, 30, 20, 3), new Point(T0 + MINUTE, 40, 40, 40, 1)),
+                    query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE));
+            assertEquals(List.of(new Point(T0, 10, 40, 25, 4)), query(store, Resolution.HOUR, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        try (var store = open(16)) {
+            assertEquals(List.of(T0, T0 + MINUTE),
+                    query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE).stream().map(Point::millis).toList());
+        }
+    }
+
+    @Test
+    void aDifferentLayoutStartsANewHistory() throws IOException {
+        try (var store = open(16)) {
+            store.append(T0, 10);
+        }
+        // Same file size, different split between the rings
+        try (var store = new TimeSeriesStore(directory.resolve("test.ts"), SECOND, 16, 6, 6)) {
+            assertEquals(0, store.size(Resolution.RAW));
+            assertEquals(List.of(), query(store, Resolution.MINUTE, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        // Different file size
+        try (var store = open(32)) {
+            assertEquals(0, store.size(Resolution.RAW));
+            store.append(T0 - HOUR, 5);
+            assertEquals(1, store.size(Resolution.RAW));
+        }
+    }
+
+    @Test
+    void appendAfterCloseIsRejected() throws IOException {
+        var store = open(16);
+        store.close();
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.append(T0, 1));
+    }
+}
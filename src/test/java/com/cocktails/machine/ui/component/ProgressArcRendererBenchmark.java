@@ -0,0 +1,104 @@
+package com.cocktails.machine.ui.component;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.Circle;
+import javafx.scene.text.Text;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the FX-thread cost of a dispense's progress updates: rendering every update as the detail screen used
+ * to (formatted label and rebuilt stroke dash array of a {@link Circle}) against {@link ProgressArcRenderer}
+ * (latest value per pulse, arc length and a label from the table).
+ * <p>
+ * Not part of the regular test run, start it with {@code mvn test -Dtest=ProgressArcRendererBenchmark}.
+ * The JavaFX toolkit is not started; the nodes are updated off-scene, so the numbers cover the property work of
+ * the update path, not layout or painting, which every node change triggers on a showing scene.
+ */
+class ProgressArcRendererBenchmark {
+    // A 5 s pour reported at the engine's 200 Hz tick and rendered at 60 pulses per second
+    private static final int UPDATES = 1_000;
+    private static final double PULSES_PER_UPDATE = 60.0 / 200.0;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    @Test
+    void perUpdateRenderingAgainstCoalescedRenderer() {
+        var circle = new Circle(100);
+        var circleLabel = new Text();
+        var arc = new Arc();
+        var arcLabel = new Text();
+        var renderer = new ProgressArcRenderer(arc, arcLabel);
+        // Node changes per variant: the label, then the ring's shape
+        int[][] changes = new int[2][2];
+        circleLabel.textProperty().addListener((observable, before, after) -> changes[0][0]++);
+        circle.getStrokeDashArray().addListener((ListChangeListener<Double>) change -> changes[0][1]++);
+        arcLabel.textProperty().addListener((observable, before, after) -> changes[1][0]++);
+        arc.lengthProperty().addListener((observable, before, after) -> changes[1][1]++);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            perUpdate(circle, circleLabel);
+            coalesced(renderer);
+        }
+        changes[0] = new int[2];
+        changes[1] = new int[2];
+        double perUpdateMicros = measure(() -> perUpdate(circle, circleLabel));
+        double coalescedMicros = measure(() -> coalesced(renderer));
+
+        System.out.printf("Progress of one dispense (%d updates, %d pulses), mean of %d rounds%n",
+                UPDATES, pulses(), MEASURED_ROUNDS);
+        System.out.printf("  per update: %8.1f us, %5d label and %5d ring changes%n",
+                perUpdateMicros, changes[0][0] / MEASURED_ROUNDS, changes[0][1] / MEASURED_ROUNDS);
+        System.out.printf("  coalesced:  %8.1f us, %5d label and %5d ring changes%n",
+                coalescedMicros, changes[1][0] / MEASURED_ROUNDS, changes[1][1] / MEASURED_ROUNDS);
+
+        // The label only changes with the rounded percentage, the ring at most once per pulse
+        assertTrue(changes[1][0] / MEASURED_ROUNDS <= 101 + 1);
+        assertTrue(changes[1][1] / MEASURED_ROUNDS <= pulses() + 2);
+    }
+
+    /**
+     * The former updateProgress of the detail screen, minus its logging.
+     */
+    private static void perUpdate(Circle circle, Text label) {
+        double circumference = 2 * Math.PI * 100;
+        for (int i = 1; i <= UPDATES; i++) {
+            double percentage = 100.0 * i / UPDATES;
+            label.setText(String.format("%.0f%%", percentage));
+            circle.getStrokeDashArray().setAll(circumference * percentage / 100.0, circumference);
+            circle.setRotate(-90);
+        }
+        label.setText("0%");
+        circle.getStrokeDashArray().clear();
+    }
+
+    private static void coalesced(ProgressArcRenderer renderer) {
+        double nextPulse = PULSES_PER_UPDATE;
+        for (int i = 1; i <= UPDATES; i++) {
+            renderer.submit(100.0 * i / UPDATES);
+            if (i >= nextPulse) {
+                nextPulse += 1 / PULSES_PER_UPDATE;
+                renderer.applyPending();
+            }
+        }
+        renderer.finish();
+        renderer.reset();
+    }
+
+    private static int pulses() {
+        return (int) Math.ceil(UPDATES * PULSES_PER_UPDATE);
+    }
+
+    /**
+     * Mean time of one dispense in µs.
+     */
+    private static double measure(Runnable dispense) {
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            dispense.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ROUNDS;
+    }
+}